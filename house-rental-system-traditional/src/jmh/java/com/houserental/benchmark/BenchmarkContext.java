@@ -0,0 +1,43 @@
+package com.houserental.benchmark;
+
+import com.houserental.HouseRentalApplication;
+import com.houserental.service.HouseSearchIndex;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+
+/**
+ * Starts the application on a random port against an in-memory H2
+ * database in PostgreSQL mode, standing in for the production database.
+ * Extra arguments, such as a profile, override the defaults.
+ */
+final class BenchmarkContext {
+
+    private BenchmarkContext() {}
+
+    static ConfigurableApplicationContext start(String... extraArgs) {
+        String[] defaults = {
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.flyway.enabled=false",
+                "--app.jwt.secret=benchmark-only-jwt-secret-of-32-bytes",
+                "--spring.jpa.show-sql=false",
+                "--spring.devtools.restart.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.houserental=WARN",
+                "--logging.level.org.springframework.security=WARN"};
+        String[] args = Arrays.copyOf(defaults, defaults.length + extraArgs.length);
+        System.arraycopy(extraArgs, 0, args, defaults.length, extraArgs.length);
+        return SpringApplication.run(HouseRentalApplication.class, args);
+    }
+
+    static void rebuildSearchIndex(ConfigurableApplicationContext context) {
+        context.getBean(HouseSearchIndex.class).rebuild();
+    }
+}
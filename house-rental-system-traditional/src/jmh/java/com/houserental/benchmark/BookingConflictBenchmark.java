@@ -0,0 +1,69 @@
+package com.houserental.benchmark;
+
+import com.houserental.entity.House;
+import com.houserental.repository.BookingRepository;
+import com.houserental.service.BookingAvailabilityIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The overlap check behind BookingService.saveBooking, answered by the
+ * availability calendar and by the conflicting-bookings query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BookingConflictBenchmark {
+
+    @Param({"200"})
+    private int houses;
+
+    @Param({"50"})
+    private int bookingsPerHouse;
+
+    private ConfigurableApplicationContext context;
+    private BookingAvailabilityIndex availabilityIndex;
+    private BookingRepository bookingRepository;
+    private List<House> houseList;
+    private final LocalDate today = LocalDate.now();
+    private int counter;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        houseList = SyntheticDataset.seed(context, houses, bookingsPerHouse).houses();
+        availabilityIndex = context.getBean(BookingAvailabilityIndex.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean calendarConflictCheck() {
+        House house = houseList.get(counter++ % houseList.size());
+        LocalDate start = today.plusDays(counter % 365);
+        return availabilityIndex.hasConflict(house, start, start.plusDays(7));
+    }
+
+    @Benchmark
+    public boolean queryConflictCheck() {
+        House house = houseList.get(counter++ % houseList.size());
+        LocalDate start = today.plusDays(counter % 365);
+        return !bookingRepository.findConflictingBookings(house, start, start.plusDays(7)).isEmpty();
+    }
+}
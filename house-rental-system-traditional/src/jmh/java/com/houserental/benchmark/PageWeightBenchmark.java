@@ -0,0 +1,174 @@
+package com.houserental.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Bytes transferred per page view for the default and prod profiles. Each
+ * invocation loads one public page and its local stylesheets and scripts the
+ * way a browser would: assets still fresh in the client cache are not
+ * requested, stale ones are revalidated with their validators. A "first"
+ * visit starts from an empty cache, a "repeat" visit keeps it between pages.
+ * CDN assets are not counted. Bytes are response bodies as sent, so
+ * compressed responses count at their compressed size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PageWeightBenchmark {
+
+    private static final Pattern LOCAL_ASSET = Pattern.compile("(?:href|src)=\"(/(?:css|js|static)/[^\"]+)\"");
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+    private static final String[] PAGES = {"/", "/search", "/search?city=Pokhara", "/search?maxPrice=2000"};
+
+    @Param({"default", "prod"})
+    private String profile;
+
+    @Param({"first", "repeat"})
+    private String visit;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private final Map<String, CachedAsset> browserCache = new HashMap<>();
+    private int counter;
+
+    private long totalViews;
+    private long totalBytes;
+    private long totalRequests;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start("--spring.profiles.active=" + profile);
+        SyntheticDataset.seed(context, 500, 0);
+        BenchmarkContext.rebuildSearchIndex(context);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port;
+        client = HttpClient.newHttpClient();
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (totalViews > 0) {
+            System.out.printf("%n%s/%s: %d bytes and %.1f requests per page view%n", profile, visit,
+                              totalBytes / totalViews, (double) totalRequests / totalViews);
+        }
+        context.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareVisit() {
+        if ("first".equals(visit)) {
+            browserCache.clear();
+        }
+    }
+
+    /** Transfer totals for the iteration, reported next to the timing. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Transfer {
+        public long bytes;
+        public long requests;
+        public long pageViews;
+    }
+
+    @Benchmark
+    public long pageView(Transfer transfer) throws IOException, InterruptedException {
+        String page = PAGES[counter++ % PAGES.length];
+        HttpResponse<byte[]> html = fetch(page, null);
+        long bytes = html.body().length;
+        int requests = 1;
+
+        Set<String> assets = new LinkedHashSet<>();
+        Matcher matcher = LOCAL_ASSET.matcher(decode(html));
+        while (matcher.find()) {
+            assets.add(matcher.group(1));
+        }
+        long now = System.currentTimeMillis();
+        for (String asset : assets) {
+            CachedAsset cached = browserCache.get(asset);
+            if (cached != null && cached.expiresAt > now) {
+                continue;
+            }
+            HttpResponse<byte[]> response = fetch(asset, cached);
+            bytes += response.body().length;
+            requests++;
+            if (response.statusCode() == 200 || response.statusCode() == 304) {
+                browserCache.put(asset, CachedAsset.from(response, now, cached));
+            }
+        }
+
+        transfer.bytes += bytes;
+        transfer.requests += requests;
+        transfer.pageViews++;
+        totalBytes += bytes;
+        totalRequests += requests;
+        totalViews++;
+        return bytes;
+    }
+
+    private HttpResponse<byte[]> fetch(String path, CachedAsset cached) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Accept-Encoding", "br, gzip");
+        if (cached != null && cached.etag != null) {
+            request.header("If-None-Match", cached.etag);
+        } else if (cached != null && cached.lastModified != null) {
+            request.header("If-Modified-Since", cached.lastModified);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static String decode(HttpResponse<byte[]> response) throws IOException {
+        boolean gzip = response.headers().firstValue("Content-Encoding").filter("gzip"::equalsIgnoreCase).isPresent();
+        if (!gzip) {
+            return new String(response.body(), StandardCharsets.UTF_8);
+        }
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private record CachedAsset(String etag, String lastModified, long expiresAt) {
+
+        static CachedAsset from(HttpResponse<?> response, long now, CachedAsset previous) {
+            String cacheControl = response.headers().firstValue("Cache-Control").orElse("");
+            long maxAgeSeconds = 0;
+            Matcher matcher = MAX_AGE.matcher(cacheControl);
+            if (matcher.find() && !cacheControl.contains("no-store")) {
+                maxAgeSeconds = Long.parseLong(matcher.group(1));
+            }
+            String etag = response.headers().firstValue("ETag")
+                    .orElse(previous == null ? null : previous.etag);
+            String lastModified = response.headers().firstValue("Last-Modified")
+                    .orElse(previous == null ? null : previous.lastModified);
+            return new CachedAsset(etag, lastModified, now + maxAgeSeconds * 1000);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.houserental.benchmark;
+
+import com.houserental.dto.HouseCard;
+import com.houserental.entity.House;
+import com.houserental.repository.HouseRepository;
+import com.houserental.service.GeoFilter;
+import com.houserental.service.HouseService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keyword and filter search through the in-memory index compared with the
+ * JPQL LIKE query it replaces.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SearchBenchmark {
+
+    private static final Set<House.Feature> REQUIRED_FEATURES =
+            EnumSet.of(House.Feature.PETS_ALLOWED, House.Feature.PARKING_AVAILABLE, House.Feature.FURNISHED);
+
+    @Param({"10000"})
+    private int houses;
+
+    private ConfigurableApplicationContext context;
+    private HouseService houseService;
+    private HouseRepository houseRepository;
+    private final Pageable page = PageRequest.of(0, 12);
+
+    private int counter;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        SyntheticDataset.seed(context, houses, 0);
+        BenchmarkContext.rebuildSearchIndex(context);
+        houseService = context.getBean(HouseService.class);
+        houseRepository = context.getBean(HouseRepository.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<House> indexedSearchHouses() {
+        return houseService.searchHouses(nextFeature(), nextCity(), null, null, BigDecimal.valueOf(3000),
+                                         2, null, null, null, null, page);
+    }
+
+    @Benchmark
+    public Slice<HouseCard> indexedSearchCards() {
+        return houseService.searchCardsBefore(nextFeature(), nextCity(), null, null, BigDecimal.valueOf(3000),
+                                              2, null, null, null, null, null, 12);
+    }
+
+    @Benchmark
+    public Page<HouseCard> indexedNearbySearch() {
+        counter++;
+        double latitude = SyntheticDataset.CENTER_LATITUDE + ((counter % 21) - 10) * 0.1;
+        return houseService.searchCardsNearby(null, null, null, null, null, null, null, null, null, null,
+                                              GeoFilter.radius(latitude, SyntheticDataset.CENTER_LONGITUDE, 5.0), page);
+    }
+
+    @Benchmark
+    public Slice<HouseCard> indexedFeatureSearch() {
+        return houseService.searchCardsBefore(null, nextCity(), null, null, null, null, null, null,
+                                              REQUIRED_FEATURES, null, null, 12);
+    }
+
+    @Benchmark
+    public Page<House> jpqlSearchHouses() {
+        return houseRepository.searchHouses(nextFeature(), nextCity(), null, null, BigDecimal.valueOf(3000),
+                                            2, null, null, 0, List.of(""), 0, page);
+    }
+
+    private String nextFeature() {
+        return SyntheticDataset.FEATURES[counter++ % SyntheticDataset.FEATURES.length];
+    }
+
+    private String nextCity() {
+        return SyntheticDataset.CITIES[counter % SyntheticDataset.CITIES.length];
+    }
+}
@@ -0,0 +1,122 @@
+package com.houserental.benchmark;
+
+import com.houserental.entity.Booking;
+import com.houserental.entity.House;
+import com.houserental.entity.User;
+import com.houserental.repository.BookingRepository;
+import com.houserental.repository.HouseRepository;
+import com.houserental.repository.UserRepository;
+import org.springframework.context.ApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates a reproducible set of landlords, tenants, houses and approved
+ * bookings for the benchmarks.
+ */
+final class SyntheticDataset {
+
+    static final String[] CITIES = {
+            "Kathmandu", "Pokhara", "Lalitpur", "Bhaktapur", "Biratnagar", "Chitwan", "Dharan", "Butwal"
+    };
+    static final String[] STATES = {"Bagmati", "Gandaki", "Koshi", "Lumbini", "Madhesh"};
+    static final String[] ADJECTIVES = {
+            "sunny", "spacious", "quiet", "modern", "cozy", "furnished", "renovated", "bright", "charming", "central"
+    };
+    static final String[] FEATURES = {
+            "garden", "balcony", "terrace", "courtyard", "rooftop", "garage", "fireplace", "view", "kitchen", "studio"
+    };
+
+    static final double CENTER_LATITUDE = 27.7172;
+    static final double CENTER_LONGITUDE = 85.3240;
+    static final double SPREAD_DEGREES = 2.0;
+
+    private static final long SEED = 42L;
+
+    private final List<House> houses = new ArrayList<>();
+
+    private SyntheticDataset() {}
+
+    static SyntheticDataset seed(ApplicationContext context, int houseCount, int bookingsPerHouse) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        HouseRepository houseRepository = context.getBean(HouseRepository.class);
+        BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+        Random random = new Random(SEED);
+
+        List<User> landlords = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, houseCount / 50); i++) {
+            landlords.add(userRepository.save(new User("landlord" + i, "landlord" + i + "@example.com",
+                    "password", "Land", "Lord" + i, User.Role.LANDLORD)));
+        }
+        User tenant = userRepository.save(new User("tenant", "tenant@example.com",
+                "password", "Ten", "Ant", User.Role.TENANT));
+
+        SyntheticDataset dataset = new SyntheticDataset();
+        List<House> batch = new ArrayList<>();
+        for (int i = 0; i < houseCount; i++) {
+            String adjective = pick(random, ADJECTIVES);
+            String feature = pick(random, FEATURES);
+            House house = new House(
+                    capitalize(adjective) + " home with " + feature,
+                    "A " + adjective + " " + pick(random, ADJECTIVES) + " property featuring a " + feature
+                            + " and a " + pick(random, FEATURES) + ", close to shops and transport.",
+                    (1 + random.nextInt(999)) + " Main Street",
+                    pick(random, CITIES),
+                    pick(random, STATES),
+                    String.valueOf(44000 + random.nextInt(1000)),
+                    BigDecimal.valueOf(500 + random.nextInt(4500)),
+                    BigDecimal.valueOf(500),
+                    House.PropertyType.values()[random.nextInt(House.PropertyType.values().length)],
+                    landlords.get(random.nextInt(landlords.size())));
+            house.setBedrooms(random.nextInt(6));
+            house.setBathrooms(1 + random.nextInt(3));
+            house.setLatitude(CENTER_LATITUDE + (random.nextDouble() - 0.5) * 2 * SPREAD_DEGREES);
+            house.setLongitude(CENTER_LONGITUDE + (random.nextDouble() - 0.5) * 2 * SPREAD_DEGREES);
+            house.setPetsAllowed(random.nextBoolean());
+            house.setParkingAvailable(random.nextBoolean());
+            house.setFurnished(random.nextBoolean());
+            batch.add(house);
+            if (batch.size() == 1000) {
+                dataset.houses.addAll(houseRepository.saveAll(batch));
+                batch.clear();
+            }
+        }
+        dataset.houses.addAll(houseRepository.saveAll(batch));
+
+        List<Booking> bookings = new ArrayList<>();
+        LocalDate start = LocalDate.now().plusDays(1);
+        for (House house : dataset.houses) {
+            LocalDate from = start;
+            for (int i = 0; i < bookingsPerHouse; i++) {
+                from = from.plusDays(1 + random.nextInt(10));
+                LocalDate to = from.plusDays(2 + random.nextInt(20));
+                Booking booking = new Booking(from, to, BigDecimal.TEN, house, tenant, null);
+                booking.setStatus(Booking.BookingStatus.APPROVED);
+                bookings.add(booking);
+                from = to;
+            }
+            if (bookings.size() >= 1000) {
+                bookingRepository.saveAll(bookings);
+                bookings.clear();
+            }
+        }
+        bookingRepository.saveAll(bookings);
+        return dataset;
+    }
+
+    List<House> houses() {
+        return houses;
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String capitalize(String value) {
+        return Character.toUpperCase(value.charAt(0)) + value.substring(1);
+    }
+}
@@ -0,0 +1,32 @@
+package com.houserental.benchmark;
+
+import com.houserental.service.BookingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The prorated total computed when a tenant submits a booking.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TotalAmountBenchmark {
+
+    private final BookingService bookingService = new BookingService();
+    private final BigDecimal pricePerMonth = new BigDecimal("1850.00");
+    private final LocalDate startDate = LocalDate.of(2025, 6, 1);
+    private int counter;
+
+    @Benchmark
+    public BigDecimal calculateTotalAmount() {
+        return bookingService.calculateTotalAmount(pricePerMonth, startDate, startDate.plusDays(1 + (counter++ & 127)));
+    }
+}
@@ -0,0 +1,30 @@
+package com.houserental.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String HOUSES = "houses";
+    public static final String AVAILABLE_HOUSES = "availableHouses";
+    public static final String PRINCIPALS = "principals";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${app.cache.houses.spec}") String housesSpec,
+                                     @Value("${app.cache.available-houses.spec}") String availableHousesSpec,
+                                     @Value("${app.cache.principals.spec:maximumSize=10000,expireAfterWrite=5m}") String principalsSpec) {
+        // Caffeine uses W-TinyLFU eviction; statistics feed the cache.gets metrics
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(HOUSES, Caffeine.from(housesSpec).recordStats().build());
+        cacheManager.registerCustomCache(AVAILABLE_HOUSES, Caffeine.from(availableHousesSpec).recordStats().build());
+        cacheManager.registerCustomCache(PRINCIPALS, Caffeine.from(principalsSpec).recordStats().build());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,46 @@
+package com.houserental.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Selects how Tomcat runs request handlers. {@code app.execution.mode=platform}
+ * keeps the default worker pool; {@code virtual} runs each request on its own
+ * virtual thread when the JVM supports them (Java 21+) and falls back to the
+ * worker pool otherwise. Database access stays bounded by
+ * {@link JdbcConcurrencyLimiter} in either mode.
+ */
+@Configuration
+public class ExecutionModeConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionModeConfig.class);
+
+    @Bean
+    @ConditionalOnProperty(name = "app.execution.mode", havingValue = "virtual")
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadExecutorCustomizer() {
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        if (executor == null) {
+            logger.warn("Virtual threads need Java 21 or later (running {}), using the platform thread pool",
+                        Runtime.version());
+            return protocolHandler -> { };
+        }
+        logger.info("Running request handlers on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    // Looked up reflectively so the application still builds and runs on Java 17
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
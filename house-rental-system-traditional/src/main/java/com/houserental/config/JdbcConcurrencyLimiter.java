@@ -0,0 +1,135 @@
+package com.houserental.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Wraps the application DataSource so that at most {@code app.jdbc.max-concurrency}
+ * connections are open at once and at most {@code app.jdbc.max-waiting} callers
+ * queue for one. Further callers fail immediately instead of piling up behind
+ * the connection pool, which keeps memory bounded when the database slows down
+ * and request threads are cheap.
+ */
+@Component
+public class JdbcConcurrencyLimiter implements BeanPostProcessor {
+
+    @Value("${app.jdbc.max-concurrency:10}")
+    private int maxConcurrency;
+
+    @Value("${app.jdbc.max-waiting:200}")
+    private int maxWaiting;
+
+    @Value("${app.jdbc.acquire-timeout-ms:5000}")
+    private long acquireTimeoutMs;
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof LimitedDataSource) && maxConcurrency > 0) {
+            return new LimitedDataSource(dataSource, maxConcurrency, maxWaiting, acquireTimeoutMs);
+        }
+        return bean;
+    }
+
+    static final class LimitedDataSource extends DelegatingDataSource {
+
+        private final Semaphore permits;
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final int maxWaiting;
+        private final long acquireTimeoutMs;
+
+        LimitedDataSource(DataSource target, int maxConcurrency, int maxWaiting, long acquireTimeoutMs) {
+            super(target);
+            this.permits = new Semaphore(maxConcurrency, true);
+            this.maxWaiting = maxWaiting;
+            this.acquireTimeoutMs = acquireTimeoutMs;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            acquire();
+            try {
+                return limited(super.getConnection());
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            acquire();
+            try {
+                return limited(super.getConnection(username, password));
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        private void acquire() throws SQLException {
+            if (permits.tryAcquire()) {
+                return;
+            }
+            if (waiting.incrementAndGet() > maxWaiting) {
+                waiting.decrementAndGet();
+                throw new SQLTransientConnectionException("JDBC concurrency limit reached, " + maxWaiting
+                        + " callers already waiting for a connection");
+            }
+            try {
+                if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    throw new SQLTransientConnectionException("Timed out after " + acquireTimeoutMs
+                            + "ms waiting for a JDBC connection permit");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException("Interrupted waiting for a JDBC connection permit", e);
+            } finally {
+                waiting.decrementAndGet();
+            }
+        }
+
+        // The permit is returned when the caller closes the connection
+        private Connection limited(Connection connection) {
+            AtomicBoolean released = new AtomicBoolean();
+            InvocationHandler handler = (proxy, method, args) -> switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "close" -> {
+                    try {
+                        yield invoke(connection, method, args);
+                    } finally {
+                        if (released.compareAndSet(false, true)) {
+                            permits.release();
+                        }
+                    }
+                }
+                default -> invoke(connection, method, args);
+            };
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                                                       new Class<?>[] {Connection.class}, handler);
+        }
+
+        private static Object invoke(Connection connection, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
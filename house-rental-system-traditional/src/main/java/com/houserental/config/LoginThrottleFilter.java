@@ -0,0 +1,47 @@
+package com.houserental.config;
+
+import com.houserental.service.LoginThrottle;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Applies {@link LoginThrottle} to form sign-ins and registrations before
+ * any password is hashed. Sign-ins are limited per client IP and per
+ * username, registrations per client IP; a throttled request is sent back
+ * to the login or registration page without reaching the hashing pool.
+ */
+public class LoginThrottleFilter extends OncePerRequestFilter {
+
+    private final LoginThrottle throttle;
+    private final RequestMatcher loginRequest;
+    private final RequestMatcher registerRequest = new AntPathRequestMatcher("/register", "POST");
+
+    public LoginThrottleFilter(LoginThrottle throttle, String loginProcessingUrl) {
+        this.throttle = throttle;
+        this.loginRequest = new AntPathRequestMatcher(loginProcessingUrl, "POST");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (loginRequest.matches(request)) {
+            String username = request.getParameter("username");
+            if (!throttle.tryAcquireForIp(request.getRemoteAddr())
+                    || (username != null && !throttle.tryAcquireForUsername(username))) {
+                response.sendRedirect(request.getContextPath() + "/login?error=throttled");
+                return;
+            }
+        } else if (registerRequest.matches(request) && !throttle.tryAcquireForIp(request.getRemoteAddr())) {
+            response.sendRedirect(request.getContextPath() + "/register?error=throttled");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,77 @@
+package com.houserental.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Refuses to start against a PostgreSQL schema that is missing any of the
+ * indexes created by the Flyway migrations, so a skipped or partially applied
+ * migration surfaces at deploy time rather than as slow queries later.
+ */
+@Component
+public class SchemaIndexVerifier implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaIndexVerifier.class);
+
+    static final List<String> EXPECTED_INDEXES = List.of(
+            "idx_houses_status_created",
+            "idx_houses_owner",
+            "idx_houses_location",
+            "idx_house_images_house",
+            "idx_house_amenities_house",
+            "idx_bookings_house_status_dates",
+            "idx_bookings_tenant_created",
+            "idx_reviews_house_created",
+            "idx_reviews_reviewer",
+            "idx_houses_title_trgm",
+            "idx_houses_description_trgm",
+            "idx_houses_city_trgm",
+            "idx_houses_state_trgm",
+            "bookings_no_overlap",
+            "idx_outbox_events_pending"
+    );
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.schema.verify-indexes:true}")
+    private boolean enabled;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equalsIgnoreCase(database)) {
+            return;
+        }
+
+        Set<String> present = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT indexname FROM pg_indexes WHERE schemaname = current_schema()", String.class));
+        List<String> missing = new ArrayList<>();
+        for (String index : EXPECTED_INDEXES) {
+            if (!present.contains(index)) {
+                missing.add(index);
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Database schema is missing expected indexes " + missing
+                    + "; run the Flyway migrations before starting the application");
+        }
+        logger.info("Verified {} expected database indexes", EXPECTED_INDEXES.size());
+    }
+}
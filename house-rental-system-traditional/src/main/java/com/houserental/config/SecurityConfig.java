@@ -1,53 +1,177 @@
 package com.houserental.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.houserental.service.JwtService;
+import com.houserental.service.LoginThrottle;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.ExceptionMappingAuthenticationFailureHandler;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.savedrequest.NullRequestCache;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    private static final String LOGIN_PROCESSING_URL = "/perform_login";
+
+    @Value("${app.security.password.algorithm:bcrypt}")
+    private String passwordAlgorithm;
+
+    @Value("${app.security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    @Value("${app.security.password.argon2-memory-kb:19456}")
+    private int argon2MemoryKb;
+
+    @Value("${app.security.password.argon2-iterations:2}")
+    private int argon2Iterations;
+
+    @Value("${app.security.hashing.threads:0}")
+    private int hashingThreads;
+
+    @Value("${app.security.hashing.queue-capacity:64}")
+    private int hashingQueueCapacity;
+
+    @Value("${app.security.hashing.timeout-ms:5000}")
+    private long hashingTimeoutMs;
+
+    /**
+     * New hashes use {@code app.security.password.algorithm}. Stored hashes
+     * with another algorithm, a lower cost, or no {id} prefix (accounts
+     * created before the prefix was introduced, all BCrypt) still verify,
+     * and are re-encoded on the next successful login through
+     * {@link com.houserental.service.UserDetailsServiceImpl#updatePassword}.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bcrypt);
+        encoders.put("argon2", new Argon2PasswordEncoder(16, 32, 1, argon2MemoryKb, argon2Iterations));
+        if (!encoders.containsKey(passwordAlgorithm)) {
+            throw new IllegalStateException("Unsupported app.security.password.algorithm: " + passwordAlgorithm);
+        }
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(passwordAlgorithm, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        int threads = hashingThreads > 0 ? hashingThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(delegating, threads, hashingQueueCapacity, hashingTimeoutMs, meterRegistry);
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, LoginThrottle loginThrottle) throws Exception {
         http
+            .addFilterBefore(new LoginThrottleFilter(loginThrottle, LOGIN_PROCESSING_URL),
+                             UsernamePasswordAuthenticationFilter.class)
             .authorizeHttpRequests(authz -> authz
-                .requestMatchers("/", "/login", "/register", "/css/**", "/js/**", "/images/**", "/static/**").permitAll()
+                .requestMatchers("/", "/login", "/register", "/register/availability", "/css/**", "/js/**", "/images/**", "/static/**").permitAll()
                 .requestMatchers("/houses", "/houses/**", "/search").permitAll()
-                .requestMatchers("/api/auth/**").permitAll()
-                .requestMatchers("/api/houses", "/api/houses/**").permitAll()
-                .requestMatchers("/dashboard", "/my-houses", "/add-house").hasRole("LANDLORD")
-                .requestMatchers("/my-bookings").hasAnyRole("TENANT", "LANDLORD")
+                .requestMatchers("/dashboard").hasAnyRole("TENANT", "LANDLORD")
+                .requestMatchers("/my-houses", "/add-house").hasRole("LANDLORD")
+                .requestMatchers("/my-houses/import", "/my-houses/import/**", "/my-houses/export").hasRole("LANDLORD")
+                .requestMatchers("/my-houses/*/images").hasRole("LANDLORD")
+                .requestMatchers("/my-bookings", "/my-bookings/export").hasAnyRole("TENANT", "LANDLORD")
                 .anyRequest().authenticated()
             )
             .formLogin(form -> form
                 .loginPage("/login")
-                .loginProcessingUrl("/perform_login")
+                .loginProcessingUrl(LOGIN_PROCESSING_URL)
                 .defaultSuccessUrl("/dashboard", true)
-                .failureUrl("/login?error=true")
+                .failureHandler(loginFailureHandler())
                 .permitAll()
             )
+            // Sign-in always lands on the dashboard, so a saved request would never be
+            // replayed; not saving one keeps it out of the shared session store
+            .requestCache(cache -> cache.requestCache(new NullRequestCache()))
             .logout(logout -> logout
                 .logoutUrl("/logout")
                 .logoutSuccessUrl("/")
                 .invalidateHttpSession(true)
-                .deleteCookies("JSESSIONID")
+                .deleteCookies("SESSION")
                 .permitAll()
-            )
-            .csrf(csrf -> csrf
-                .ignoringRequestMatchers("/api/**")
             );
 
         return http.build();
     }
+
+    /**
+     * Stateless chain for the JSON API: requests authenticate with a bearer
+     * token on every call, no session or CSRF token is involved, and
+     * failures are answered with problem+json instead of a login redirect.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain apiFilterChain(HttpSecurity http, JwtService jwtService,
+                                              ObjectMapper objectMapper) throws Exception {
+        http
+            .securityMatcher("/api/**")
+            .authorizeHttpRequests(authz -> authz
+                .requestMatchers(HttpMethod.POST, "/api/auth/login", "/api/auth/register").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/houses", "/api/houses/**").permitAll()
+                .requestMatchers("/api/bookings/*/approve", "/api/bookings/*/reject").hasRole("LANDLORD")
+                .requestMatchers("/api/bookings/*/cancel").hasRole("TENANT")
+                .requestMatchers(HttpMethod.POST, "/api/bookings").hasRole("TENANT")
+                .anyRequest().authenticated()
+            )
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .csrf(csrf -> csrf.disable())
+            .exceptionHandling(errors -> errors
+                .authenticationEntryPoint((request, response, e) ->
+                    writeProblem(response, objectMapper, HttpStatus.UNAUTHORIZED, "A valid bearer token is required"))
+                .accessDeniedHandler((request, response, e) ->
+                    writeProblem(response, objectMapper, HttpStatus.FORBIDDEN, "Not allowed for this account"))
+            )
+            .addFilterBefore(new JwtAuthenticationFilter(jwtService), UsernamePasswordAuthenticationFilter.class);
+
+        return http.build();
+    }
+
+    @Bean
+    public AuthenticationManager authenticationManager(AuthenticationConfiguration configuration) throws Exception {
+        return configuration.getAuthenticationManager();
+    }
+
+    /**
+     * Sends a sign-in refused by the saturated hashing pool (see
+     * {@link BoundedPasswordEncoder}) to {@code /login?error=busy}, so the page
+     * can ask the user to retry instead of reporting a wrong password.
+     */
+    private static ExceptionMappingAuthenticationFailureHandler loginFailureHandler() {
+        ExceptionMappingAuthenticationFailureHandler handler = new ExceptionMappingAuthenticationFailureHandler();
+        handler.setDefaultFailureUrl("/login?error=true");
+        handler.setExceptionMappings(Map.of(AuthenticationServiceException.class.getName(), "/login?error=busy"));
+        return handler;
+    }
+
+    private static void writeProblem(HttpServletResponse response, ObjectMapper objectMapper,
+                                     HttpStatus status, String detail) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ProblemDetail.forStatusAndDetail(status, detail));
+    }
 }
 
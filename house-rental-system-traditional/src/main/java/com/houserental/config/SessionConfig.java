@@ -0,0 +1,53 @@
+package com.houserental.config;
+
+import com.houserental.repository.FileSessionStore;
+import com.houserental.repository.JdbcSessionStore;
+import com.houserental.repository.SessionStore;
+import com.houserental.service.CompactSessionRepository;
+import com.houserental.service.SessionAttributeCodec;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+
+import java.time.Duration;
+
+/**
+ * Web sessions of the form-login chain live in a store shared by all nodes
+ * instead of the servlet container, so requests can be balanced round-robin
+ * and sign-ins survive restarts. {@code app.session.store} selects the
+ * store: {@code file} keeps sessions in a local directory, {@code jdbc} in
+ * the http_sessions table.
+ */
+@Configuration
+@EnableSpringHttpSession
+public class SessionConfig {
+
+    @Value("${app.session.store:file}")
+    private String storeType;
+
+    @Value("${app.session.file.directory:${user.home}/.house-rental/sessions}")
+    private String fileDirectory;
+
+    @Value("${server.servlet.session.timeout:30m}")
+    private Duration timeout;
+
+    @Bean
+    public SessionStore sessionStore(ObjectProvider<JdbcTemplate> jdbcTemplate) {
+        switch (storeType) {
+            case "file":
+                return new FileSessionStore(fileDirectory);
+            case "jdbc":
+                return new JdbcSessionStore(jdbcTemplate.getObject());
+            default:
+                throw new IllegalStateException("Unsupported app.session.store: " + storeType);
+        }
+    }
+
+    @Bean
+    public CompactSessionRepository sessionRepository(SessionStore sessionStore, SessionAttributeCodec codec) {
+        return new CompactSessionRepository(sessionStore, codec, timeout);
+    }
+}
@@ -1,26 +1,64 @@
 package com.houserental.config;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.web.WebProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceChainRegistration;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistration;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    @Autowired
+    private WebProperties webProperties;
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        registry.addResourceHandler("/css/**")
-                .addResourceLocations("classpath:/static/css/");
-        
-        registry.addResourceHandler("/js/**")
-                .addResourceLocations("classpath:/static/js/");
+        configureAssets(registry.addResourceHandler("/css/**")
+                .addResourceLocations("classpath:/static/css/"));
         
-        registry.addResourceHandler("/images/**")
-                .addResourceLocations("classpath:/static/images/");
+        configureAssets(registry.addResourceHandler("/js/**")
+                .addResourceLocations("classpath:/static/js/"));
         
-        registry.addResourceHandler("/static/**")
-                .addResourceLocations("classpath:/static/");
+        configureAssets(registry.addResourceHandler("/static/**")
+                .addResourceLocations("classpath:/static/"));
+    }
+
+    /**
+     * Applies the spring.web.resources cache and chain settings, which Spring
+     * Boot only applies to its own handlers. With content versioning enabled
+     * every asset URL carries a hash of the file, so responses never change
+     * and are marked immutable; precompressed .br/.gz variants written by the
+     * build are served to clients that accept them.
+     */
+    private void configureAssets(ResourceHandlerRegistration registration) {
+        WebProperties.Resources resources = webProperties.getResources();
+        WebProperties.Resources.Chain chain = resources.getChain();
+        boolean versioned = Boolean.TRUE.equals(chain.getEnabled()) && chain.getStrategy().getContent().isEnabled();
+
+        CacheControl cacheControl = resources.getCache().getCachecontrol().toHttpCacheControl();
+        if (cacheControl != null) {
+            registration.setCacheControl(versioned ? cacheControl.immutable() : cacheControl);
+        } else if (resources.getCache().getPeriod() != null) {
+            registration.setCachePeriod((int) resources.getCache().getPeriod().getSeconds());
+        }
+
+        if (Boolean.TRUE.equals(chain.getEnabled())) {
+            ResourceChainRegistration resourceChain = registration.resourceChain(chain.isCache());
+            if (chain.isCompressed()) {
+                resourceChain.addResolver(new EncodedResourceResolver());
+            }
+            if (versioned) {
+                resourceChain.addResolver(new VersionResourceResolver()
+                        .addContentVersionStrategy(chain.getStrategy().getContent().getPaths()));
+            }
+        }
     }
 
     @Override
@@ -30,4 +68,3 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addViewController("/register").setViewName("register");
     }
 }
-
@@ -0,0 +1,94 @@
+package com.houserental.controller;
+
+import com.houserental.dto.LoginRequest;
+import com.houserental.dto.RegistrationRequest;
+import com.houserental.dto.TokenResponse;
+import com.houserental.entity.User;
+import com.houserental.service.AuthenticatedUser;
+import com.houserental.service.JwtService;
+import com.houserental.service.LoginThrottle;
+import com.houserental.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Token endpoints of the JSON API. Clients send the returned token as
+ * {@code Authorization: Bearer <token>} on later calls.
+ */
+@RestController
+@RequestMapping("/api/auth")
+public class ApiAuthController {
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    @PostMapping("/login")
+    public TokenResponse login(@Valid @RequestBody LoginRequest login, HttpServletRequest request) {
+        if (!loginThrottle.tryAcquireForIp(request.getRemoteAddr())
+                || !loginThrottle.tryAcquireForUsername(login.getUsername())) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many sign-in attempts, try again later");
+        }
+        AuthenticatedUser principal = (AuthenticatedUser) authenticationManager.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated(login.getUsername(), login.getPassword()))
+                .getPrincipal();
+        return tokenFor(principal);
+    }
+
+    /** Creates the account and signs it in, so the client needs no separate login. */
+    @PostMapping("/register")
+    public ResponseEntity<TokenResponse> register(@Valid @RequestBody RegistrationRequest registration,
+                                                  HttpServletRequest request) {
+        if (!loginThrottle.tryAcquireForIp(request.getRemoteAddr())) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many registrations, try again later");
+        }
+        User user = userService.registerUser(registration.toUser());
+        AuthenticatedUser principal = new AuthenticatedUser(user,
+                List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name())));
+        return ResponseEntity.status(HttpStatus.CREATED).body(tokenFor(principal));
+    }
+
+    /** Revokes the token used for this request on every node. */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        jwtService.revoke(authorization.substring(authorization.indexOf(' ') + 1).trim());
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/me")
+    public Map<String, Object> me(@AuthenticationPrincipal AuthenticatedUser principal) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("userId", principal.getId());
+        body.put("username", principal.getUsername());
+        body.put("role", principal.getRole());
+        return body;
+    }
+
+    private TokenResponse tokenFor(AuthenticatedUser principal) {
+        JwtService.IssuedToken issued = jwtService.issue(principal);
+        return new TokenResponse(issued.token(), issued.expiresAt(),
+                                 principal.getId(), principal.getUsername(), principal.getRole());
+    }
+}
@@ -0,0 +1,123 @@
+package com.houserental.controller;
+
+import com.houserental.dto.BookingRequest;
+import com.houserental.dto.BookingRow;
+import com.houserental.dto.CursorPage;
+import com.houserental.entity.Booking;
+import com.houserental.entity.House;
+import com.houserental.service.AuthenticatedUser;
+import com.houserental.service.BookingCursor;
+import com.houserental.service.BookingService;
+import com.houserental.service.HouseService;
+import com.houserental.service.UserService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bookings of the calling user through the API: tenants see and cancel
+ * their own requests, landlords see and decide requests for their houses.
+ */
+@RestController
+@RequestMapping("/api/bookings")
+public class ApiBookingController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private HouseService houseService;
+
+    @Autowired
+    private UserService userService;
+
+    @GetMapping
+    public CursorPage<BookingRow> list(@AuthenticationPrincipal AuthenticatedUser principal,
+                                       @RequestParam(required = false) Booking.BookingStatus status,
+                                       @RequestParam(required = false) String cursor,
+                                       @RequestParam(defaultValue = "20") int size) {
+        Slice<BookingRow> bookings = bookingService.findRows(principal.getId(), principal.getRole(), status,
+                                                             BookingCursor.decode(cursor),
+                                                             Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+        String nextCursor = bookings.hasNext() && bookings.hasContent()
+                ? BookingCursor.after(bookings.getContent().get(bookings.getNumberOfElements() - 1)).encode()
+                : null;
+        return new CursorPage<>(bookings.getContent(), nextCursor);
+    }
+
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> create(@Valid @RequestBody BookingRequest request,
+                                                      @AuthenticationPrincipal AuthenticatedUser principal) {
+        House house = houseService.findById(request.getHouseId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "House not found"));
+        Booking booking = new Booking();
+        booking.setStartDate(request.getStartDate());
+        booking.setEndDate(request.getEndDate());
+        booking.setNotes(request.getNotes());
+        booking.setHouse(house);
+        booking.setTenant(userService.getReference(principal.getId()));
+        Booking saved;
+        try {
+            booking.setTotalAmount(bookingService.calculateTotalAmount(
+                    house.getPricePerMonth(), request.getStartDate(), request.getEndDate()));
+            saved = bookingService.saveBooking(booking);
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("id", saved.getId());
+        body.put("status", saved.getStatus());
+        body.put("startDate", saved.getStartDate());
+        body.put("endDate", saved.getEndDate());
+        body.put("totalAmount", saved.getTotalAmount());
+        return ResponseEntity.status(HttpStatus.CREATED).body(body);
+    }
+
+    @PostMapping("/{id}/approve")
+    public ResponseEntity<Void> approve(@PathVariable Long id,
+                                        @AuthenticationPrincipal AuthenticatedUser principal) {
+        if (!bookingService.canUserManageBooking(id, userService.getReference(principal.getId()))) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You don't have permission to manage this booking.");
+        }
+        return updateStatus(id, Booking.BookingStatus.APPROVED, null);
+    }
+
+    @PostMapping("/{id}/reject")
+    public ResponseEntity<Void> reject(@PathVariable Long id,
+                                       @RequestParam(required = false) String rejectionReason,
+                                       @AuthenticationPrincipal AuthenticatedUser principal) {
+        if (!bookingService.canUserManageBooking(id, userService.getReference(principal.getId()))) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You don't have permission to manage this booking.");
+        }
+        return updateStatus(id, Booking.BookingStatus.REJECTED, rejectionReason);
+    }
+
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<Void> cancel(@PathVariable Long id,
+                                       @AuthenticationPrincipal AuthenticatedUser principal) {
+        if (!bookingService.isBookingOwner(id, userService.getReference(principal.getId()))) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You don't have permission to cancel this booking.");
+        }
+        return updateStatus(id, Booking.BookingStatus.CANCELLED, null);
+    }
+
+    private ResponseEntity<Void> updateStatus(Long id, Booking.BookingStatus status, String rejectionReason) {
+        try {
+            bookingService.updateBookingStatus(id, status, rejectionReason);
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
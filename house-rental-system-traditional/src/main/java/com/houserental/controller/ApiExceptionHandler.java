@@ -0,0 +1,63 @@
+package com.houserental.controller;
+
+import com.houserental.service.DuplicateAccountException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Turns failures of the API controllers into {@code application/problem+json}
+ * responses; the HTML controllers keep their own error pages.
+ */
+@RestControllerAdvice(assignableTypes = {ApiAuthController.class, ApiHouseController.class,
+                                         ApiBookingController.class})
+public class ApiExceptionHandler {
+
+    /**
+     * Rendered here rather than through the {@code /error} page, which sits
+     * outside the stateless API chain.
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ProblemDetail> statusException(ResponseStatusException e) {
+        return ResponseEntity.status(e.getStatusCode()).body(e.getBody());
+    }
+
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ProblemDetail invalidRequest(MethodArgumentNotValidException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, "Request validation failed");
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (FieldError error : e.getBindingResult().getFieldErrors()) {
+            errors.putIfAbsent(error.getField(), error.getDefaultMessage());
+        }
+        problem.setProperty("errors", errors);
+        return problem;
+    }
+
+    @ExceptionHandler(DuplicateAccountException.class)
+    public ProblemDetail duplicateAccount(DuplicateAccountException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, e.getMessage());
+        problem.setProperty("field", e.getField());
+        return problem;
+    }
+
+    /** The hashing pool is saturated; the client should retry shortly. */
+    @ExceptionHandler(AuthenticationServiceException.class)
+    public ProblemDetail authenticationUnavailable(AuthenticationServiceException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+    }
+
+    @ExceptionHandler(AuthenticationException.class)
+    public ProblemDetail authenticationFailed(AuthenticationException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.UNAUTHORIZED, "Invalid username or password");
+    }
+}
@@ -0,0 +1,60 @@
+package com.houserental.controller;
+
+import com.houserental.dto.CursorPage;
+import com.houserental.dto.HouseCard;
+import com.houserental.dto.HouseDetail;
+import com.houserental.entity.House;
+import com.houserental.service.HouseCursor;
+import com.houserental.service.HouseService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Read-only house listing and search for API clients, paged by the same
+ * keyset cursor as the search page.
+ */
+@RestController
+@RequestMapping("/api/houses")
+public class ApiHouseController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private HouseService houseService;
+
+    @GetMapping
+    public CursorPage<HouseCard> search(@RequestParam(required = false) String keyword,
+                                        @RequestParam(required = false) String city,
+                                        @RequestParam(required = false) String state,
+                                        @RequestParam(required = false) BigDecimal minPrice,
+                                        @RequestParam(required = false) BigDecimal maxPrice,
+                                        @RequestParam(required = false) Integer bedrooms,
+                                        @RequestParam(required = false) Integer bathrooms,
+                                        @RequestParam(required = false) House.PropertyType propertyType,
+                                        @RequestParam(required = false) Set<House.Feature> features,
+                                        @RequestParam(required = false) List<String> amenities,
+                                        @RequestParam(required = false) String cursor,
+                                        @RequestParam(defaultValue = "20") int size) {
+        Slice<HouseCard> houses = houseService.searchCardsBefore(keyword, city, state, minPrice, maxPrice,
+                                                                bedrooms, bathrooms, propertyType,
+                                                                features, amenities, HouseCursor.decode(cursor),
+                                                                Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+        String nextCursor = houses.hasNext() && houses.hasContent()
+                ? HouseCursor.after(houses.getContent().get(houses.getNumberOfElements() - 1)).encode()
+                : null;
+        return new CursorPage<>(houses.getContent(), nextCursor);
+    }
+
+    @GetMapping("/{id}")
+    public HouseDetail get(@PathVariable Long id) {
+        return houseService.findDetail(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "House not found"));
+    }
+}
@@ -1,16 +1,23 @@
 package com.houserental.controller;
 
 import com.houserental.entity.User;
+import com.houserental.service.DuplicateAccountException;
 import com.houserental.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @Controller
 public class AuthController {
 
@@ -33,11 +40,33 @@ public class AuthController {
             redirectAttributes.addFlashAttribute("successMessage", 
                 "Registration successful! Please login with your credentials.");
             return "redirect:/login";
+        } catch (DuplicateAccountException e) {
+            result.rejectValue(e.getField(), "duplicate", e.getMessage());
+            model.addAttribute("roles", User.Role.values());
+            return "register";
         } catch (RuntimeException e) {
             model.addAttribute("errorMessage", e.getMessage());
             model.addAttribute("roles", User.Role.values());
             return "register";
         }
     }
-}
 
+    /**
+     * Live check for the registration form, e.g.
+     * {@code /register/availability?username=jane} returns {@code {"username":true}}
+     * when the name is free.
+     */
+    @GetMapping("/register/availability")
+    @ResponseBody
+    public Map<String, Boolean> checkAvailability(@RequestParam(required = false) String username,
+                                                  @RequestParam(required = false) String email) {
+        Map<String, Boolean> availability = new LinkedHashMap<>();
+        if (username != null && !username.isBlank()) {
+            availability.put("username", userService.isUsernameAvailable(username));
+        }
+        if (email != null && !email.isBlank()) {
+            availability.put("email", userService.isEmailAvailable(email));
+        }
+        return availability;
+    }
+}
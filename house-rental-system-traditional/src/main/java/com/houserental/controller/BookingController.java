@@ -1,29 +1,36 @@
 package com.houserental.controller;
 
+import com.houserental.dto.BookingRow;
 import com.houserental.entity.Booking;
 import com.houserental.entity.House;
 import com.houserental.entity.User;
+import com.houserental.service.AuthenticatedUser;
+import com.houserental.service.BookingCursor;
 import com.houserental.service.BookingService;
 import com.houserental.service.HouseService;
 import com.houserental.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.math.BigDecimal;
-import java.time.temporal.ChronoUnit;
-import java.util.List;
 import java.util.Optional;
 
 @Controller
 public class BookingController {
 
+    private static final int PAGE_SIZE = 20;
+
     @Autowired
     private BookingService bookingService;
 
@@ -34,29 +41,37 @@ public class BookingController {
     private UserService userService;
 
     @GetMapping("/my-bookings")
-    public String myBookings(Model model) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        Optional<User> user = userService.findByUsername(auth.getName());
-        
-        if (user.isPresent()) {
-            User currentUser = user.get();
-            List<Booking> bookings;
-            
-            if (currentUser.getRole() == User.Role.LANDLORD) {
-                bookings = bookingService.findByHouseOwner(currentUser);
-                model.addAttribute("isLandlord", true);
-            } else {
-                bookings = bookingService.findByTenant(currentUser);
-                model.addAttribute("isLandlord", false);
-            }
+    public String myBookings(@AuthenticationPrincipal AuthenticatedUser principal,
+                             @RequestParam(required = false) Booking.BookingStatus status,
+                             @RequestParam(required = false) String cursor,
+                             Model model) {
+        if (principal != null) {
+            Slice<BookingRow> bookings = bookingService.findRows(
+                    principal.getId(), principal.getRole(), status, BookingCursor.decode(cursor), PAGE_SIZE);
             
+            model.addAttribute("isLandlord", principal.getRole() == User.Role.LANDLORD);
             model.addAttribute("bookings", bookings);
+            model.addAttribute("status", status);
+            model.addAttribute("cursor", cursor);
+            model.addAttribute("nextCursor", nextCursor(bookings));
             model.addAttribute("bookingStatuses", Booking.BookingStatus.values());
         }
         
         return "my-bookings";
     }
 
+    @GetMapping("/my-bookings/export")
+    public ResponseEntity<StreamingResponseBody> exportBookings(@RequestParam(required = false) Booking.BookingStatus status,
+                                                                @AuthenticationPrincipal AuthenticatedUser principal) {
+        Long userId = principal.getId();
+        User.Role role = principal.getRole();
+        StreamingResponseBody body = output -> bookingService.exportRows(userId, role, status, output);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bookings.csv\"")
+                .body(body);
+    }
+
     @GetMapping("/book/{houseId}")
     public String bookHouseForm(@PathVariable Long houseId, Model model) {
         Optional<House> house = houseService.findById(houseId);
@@ -72,6 +87,7 @@ public class BookingController {
     public String bookHouse(@PathVariable Long houseId, 
                            @Valid @ModelAttribute("booking") Booking booking, 
                            BindingResult result, 
+                           @AuthenticationPrincipal AuthenticatedUser principal,
                            Model model, 
                            RedirectAttributes redirectAttributes) {
         
@@ -85,19 +101,13 @@ public class BookingController {
             return "book-house";
         }
 
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        Optional<User> user = userService.findByUsername(auth.getName());
-        
-        if (user.isPresent()) {
+        if (principal != null) {
             try {
-                // Calculate total amount
-                long days = ChronoUnit.DAYS.between(booking.getStartDate(), booking.getEndDate());
-                BigDecimal totalAmount = house.get().getPricePerMonth()
-                    .multiply(BigDecimal.valueOf(days))
-                    .divide(BigDecimal.valueOf(30), 2, BigDecimal.ROUND_HALF_UP);
+                BigDecimal totalAmount = bookingService.calculateTotalAmount(
+                    house.get().getPricePerMonth(), booking.getStartDate(), booking.getEndDate());
                 
                 booking.setHouse(house.get());
-                booking.setTenant(user.get());
+                booking.setTenant(userService.getReference(principal.getId()));
                 booking.setTotalAmount(totalAmount);
                 
                 bookingService.saveBooking(booking);
@@ -115,11 +125,10 @@ public class BookingController {
     }
 
     @PostMapping("/bookings/{id}/approve")
-    public String approveBooking(@PathVariable Long id, RedirectAttributes redirectAttributes) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        Optional<User> user = userService.findByUsername(auth.getName());
-        
-        if (user.isPresent() && bookingService.canUserManageBooking(id, user.get())) {
+    public String approveBooking(@PathVariable Long id,
+                                @AuthenticationPrincipal AuthenticatedUser principal,
+                                RedirectAttributes redirectAttributes) {
+        if (principal != null && bookingService.canUserManageBooking(id, userService.getReference(principal.getId()))) {
             try {
                 bookingService.updateBookingStatus(id, Booking.BookingStatus.APPROVED, null);
                 redirectAttributes.addFlashAttribute("successMessage", "Booking approved successfully!");
@@ -136,11 +145,9 @@ public class BookingController {
     @PostMapping("/bookings/{id}/reject")
     public String rejectBooking(@PathVariable Long id, 
                                @RequestParam String rejectionReason, 
+                               @AuthenticationPrincipal AuthenticatedUser principal,
                                RedirectAttributes redirectAttributes) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        Optional<User> user = userService.findByUsername(auth.getName());
-        
-        if (user.isPresent() && bookingService.canUserManageBooking(id, user.get())) {
+        if (principal != null && bookingService.canUserManageBooking(id, userService.getReference(principal.getId()))) {
             try {
                 bookingService.updateBookingStatus(id, Booking.BookingStatus.REJECTED, rejectionReason);
                 redirectAttributes.addFlashAttribute("successMessage", "Booking rejected successfully!");
@@ -155,11 +162,10 @@ public class BookingController {
     }
 
     @PostMapping("/bookings/{id}/cancel")
-    public String cancelBooking(@PathVariable Long id, RedirectAttributes redirectAttributes) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        Optional<User> user = userService.findByUsername(auth.getName());
-        
-        if (user.isPresent() && bookingService.isBookingOwner(id, user.get())) {
+    public String cancelBooking(@PathVariable Long id,
+                               @AuthenticationPrincipal AuthenticatedUser principal,
+                               RedirectAttributes redirectAttributes) {
+        if (principal != null && bookingService.isBookingOwner(id, userService.getReference(principal.getId()))) {
             try {
                 bookingService.updateBookingStatus(id, Booking.BookingStatus.CANCELLED, null);
                 redirectAttributes.addFlashAttribute("successMessage", "Booking cancelled successfully!");
@@ -172,5 +178,11 @@ public class BookingController {
         
         return "redirect:/my-bookings";
     }
-}
 
+    private static String nextCursor(Slice<BookingRow> bookings) {
+        if (!bookings.hasNext() || !bookings.hasContent()) {
+            return null;
+        }
+        return BookingCursor.after(bookings.getContent().get(bookings.getNumberOfElements() - 1)).encode();
+    }
+}
@@ -1,16 +1,20 @@
 package com.houserental.controller;
 
+import com.houserental.dto.HouseCard;
+import com.houserental.dto.HouseDetail;
 import com.houserental.entity.House;
 import com.houserental.entity.User;
-import com.houserental.service.BookingService;
+import com.houserental.entity.UserStats;
+import com.houserental.service.AuthenticatedUser;
+import com.houserental.service.GeoFilter;
+import com.houserental.service.HouseCursor;
 import com.houserental.service.HouseService;
-import com.houserental.service.UserService;
+import com.houserental.service.UserStatsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.data.domain.Slice;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -18,7 +22,11 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Controller
 public class HomeController {
@@ -27,38 +35,32 @@ public class HomeController {
     private HouseService houseService;
 
     @Autowired
-    private UserService userService;
-
-    @Autowired
-    private BookingService bookingService;
+    private UserStatsService userStatsService;
 
     @GetMapping("/")
-    public String home(Model model, @RequestParam(defaultValue = "0") int page) {
-        Pageable pageable = PageRequest.of(page, 6);
-        Page<House> houses = houseService.findAllAvailable(pageable);
+    public String home(Model model) {
+        Slice<HouseCard> houses = houseService.findAvailableCardsBefore(null, 6);
         
         model.addAttribute("houses", houses);
-        model.addAttribute("currentPage", page);
-        model.addAttribute("totalPages", houses.getTotalPages());
         
         return "index";
     }
 
     @GetMapping("/houses")
-    public String houses(Model model, @RequestParam(defaultValue = "0") int page) {
-        Pageable pageable = PageRequest.of(page, 12);
-        Page<House> houses = houseService.findAllAvailable(pageable);
+    public String houses(Model model, @RequestParam(required = false) String cursor) {
+        Slice<HouseCard> houses = houseService.findAvailableCardsBefore(HouseCursor.decode(cursor), 12);
         
         model.addAttribute("houses", houses);
-        model.addAttribute("currentPage", page);
-        model.addAttribute("totalPages", houses.getTotalPages());
+        model.addAttribute("cursor", cursor);
+        model.addAttribute("nextCursor", nextCursor(houses));
+        model.addAttribute("approximateTotal", houseService.estimateAvailableCount());
         
         return "houses";
     }
 
     @GetMapping("/houses/{id}")
     public String houseDetails(@PathVariable Long id, Model model) {
-        Optional<House> house = houseService.findById(id);
+        Optional<HouseDetail> house = houseService.findDetail(id);
         if (house.isPresent()) {
             model.addAttribute("house", house.get());
             return "house-details";
@@ -75,16 +77,54 @@ public class HomeController {
                         @RequestParam(required = false) Integer bedrooms,
                         @RequestParam(required = false) Integer bathrooms,
                         @RequestParam(required = false) House.PropertyType propertyType,
+                        @RequestParam(required = false) Set<House.Feature> features,
+                        @RequestParam(required = false) List<String> amenities,
+                        @RequestParam(required = false) String cursor,
+                        @RequestParam(required = false) Double lat,
+                        @RequestParam(required = false) Double lng,
+                        @RequestParam(required = false) Double radiusKm,
+                        @RequestParam(required = false) Double minLat,
+                        @RequestParam(required = false) Double minLng,
+                        @RequestParam(required = false) Double maxLat,
+                        @RequestParam(required = false) Double maxLng,
                         @RequestParam(defaultValue = "0") int page,
                         Model model) {
         
-        Pageable pageable = PageRequest.of(page, 12);
-        Page<House> houses = houseService.searchHouses(keyword, city, state, minPrice, maxPrice, 
-                                                      bedrooms, bathrooms, propertyType, pageable);
+        GeoFilter geo = GeoFilter.of(lat, lng, radiusKm, minLat, minLng, maxLat, maxLng);
+        if (geo != null) {
+            // Nearest-first results are paged by offset rather than by cursor
+            Page<HouseCard> houses = houseService.searchCardsNearby(keyword, city, state, minPrice, maxPrice,
+                                                                   bedrooms, bathrooms, propertyType,
+                                                                   features, amenities,
+                                                                   geo, PageRequest.of(Math.max(page, 0), 12));
+            Map<Long, Double> distances = new HashMap<>();
+            for (HouseCard house : houses) {
+                distances.put(house.getId(), geo.distanceKm(house.getLatitude(), house.getLongitude()));
+            }
+            model.addAttribute("houses", houses);
+            model.addAttribute("distances", distances);
+            model.addAttribute("page", houses.getNumber());
+        } else {
+            Slice<HouseCard> houses = houseService.searchCardsBefore(keyword, city, state, minPrice, maxPrice, 
+                                                                    bedrooms, bathrooms, propertyType,
+                                                                    features, amenities,
+                                                                    HouseCursor.decode(cursor), 12);
+            model.addAttribute("houses", houses);
+            model.addAttribute("cursor", cursor);
+            model.addAttribute("nextCursor", nextCursor(houses));
+        }
         
-        model.addAttribute("houses", houses);
-        model.addAttribute("currentPage", page);
-        model.addAttribute("totalPages", houses.getTotalPages());
+        model.addAttribute("facets", houseService.searchFacets(keyword, city, state, minPrice, maxPrice,
+                                                               bedrooms, bathrooms, propertyType,
+                                                               features, amenities, geo));
+        model.addAttribute("geoSearch", geo != null);
+        model.addAttribute("lat", lat);
+        model.addAttribute("lng", lng);
+        model.addAttribute("radiusKm", radiusKm);
+        model.addAttribute("minLat", minLat);
+        model.addAttribute("minLng", minLng);
+        model.addAttribute("maxLat", maxLat);
+        model.addAttribute("maxLng", maxLng);
         model.addAttribute("keyword", keyword);
         model.addAttribute("city", city);
         model.addAttribute("state", state);
@@ -94,28 +134,26 @@ public class HomeController {
         model.addAttribute("bathrooms", bathrooms);
         model.addAttribute("propertyType", propertyType);
         model.addAttribute("propertyTypes", House.PropertyType.values());
+        model.addAttribute("features", features);
+        model.addAttribute("amenityText", amenities == null ? null : String.join(", ", amenities));
+        model.addAttribute("allFeatures", House.Feature.values());
         
         return "search";
     }
 
     @GetMapping("/dashboard")
-    public String dashboard(Model model) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        Optional<User> user = userService.findByUsername(auth.getName());
-        
-        if (user.isPresent()) {
-            User currentUser = user.get();
-            model.addAttribute("user", currentUser);
+    public String dashboard(@AuthenticationPrincipal AuthenticatedUser principal, Model model) {
+        if (principal != null) {
+            UserStats stats = userStatsService.getStats(principal.getId());
+            model.addAttribute("user", principal);
             
-            if (currentUser.getRole() == User.Role.LANDLORD) {
-                long houseCount = houseService.countByOwner(currentUser);
-                long pendingBookings = bookingService.countPendingBookingsByOwner(currentUser);
-                
-                model.addAttribute("houseCount", houseCount);
-                model.addAttribute("pendingBookings", pendingBookings);
+            if (principal.getRole() == User.Role.LANDLORD) {
+                model.addAttribute("houseCount", stats.getHouseCount());
+                model.addAttribute("pendingBookings", stats.getPendingBookingCount());
+                model.addAttribute("activeBookings", stats.getApprovedBookingCount() + stats.getActiveBookingCount());
+                model.addAttribute("revenue", stats.getRevenue());
             } else {
-                long bookingCount = bookingService.countByTenant(currentUser);
-                model.addAttribute("bookingCount", bookingCount);
+                model.addAttribute("bookingCount", stats.getTenantBookingCount());
             }
         }
         
@@ -133,5 +171,12 @@ public class HomeController {
         model.addAttribute("roles", User.Role.values());
         return "register";
     }
+
+    private static String nextCursor(Slice<HouseCard> houses) {
+        if (!houses.hasNext() || !houses.hasContent()) {
+            return null;
+        }
+        return HouseCursor.after(houses.getContent().get(houses.getNumberOfElements() - 1)).encode();
+    }
 }
 
@@ -1,20 +1,32 @@
 package com.houserental.controller;
 
+import com.houserental.dto.HouseImportResult;
 import com.houserental.entity.House;
 import com.houserental.entity.User;
+import com.houserental.service.AuthenticatedUser;
+import com.houserental.service.HouseImportService;
 import com.houserental.service.HouseService;
+import com.houserental.service.ImageStorageService;
 import com.houserental.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Controller
@@ -27,14 +39,25 @@ public class HouseController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private HouseImportService houseImportService;
+
+    @Autowired
+    private ImageStorageService imageStorageService;
+
     @GetMapping
-    public String myHouses(Model model) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        Optional<User> user = userService.findByUsername(auth.getName());
-        
-        if (user.isPresent()) {
-            List<House> houses = houseService.findByOwner(user.get());
+    public String myHouses(@AuthenticationPrincipal AuthenticatedUser principal, Model model) {
+        if (principal != null) {
+            List<House> houses = houseService.findByOwner(userService.getReference(principal.getId()));
+            Map<Long, String> thumbnails = new HashMap<>();
+            for (House house : houses) {
+                if (house.getImages() != null && !house.getImages().isEmpty()) {
+                    thumbnails.put(house.getId(), ImageStorageService.thumbnailUrl(
+                            house.getImages().get(0), ImageStorageService.CARD_THUMBNAIL_WIDTH));
+                }
+            }
             model.addAttribute("houses", houses);
+            model.addAttribute("thumbnails", thumbnails);
         }
         
         return "my-houses";
@@ -50,6 +73,8 @@ public class HouseController {
     @PostMapping("/add")
     public String addHouse(@Valid @ModelAttribute("house") House house, 
                           BindingResult result, 
+                          @RequestParam(value = "imageFiles", required = false) List<MultipartFile> imageFiles,
+                          @AuthenticationPrincipal AuthenticatedUser principal,
                           Model model, 
                           RedirectAttributes redirectAttributes) {
         
@@ -58,11 +83,18 @@ public class HouseController {
             return "add-house";
         }
 
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        Optional<User> user = userService.findByUsername(auth.getName());
-        
-        if (user.isPresent()) {
-            house.setOwner(user.get());
+        if (principal != null) {
+            try {
+                List<String> imageUrls = storeImages(imageFiles);
+                if (!imageUrls.isEmpty()) {
+                    house.setImages(imageUrls);
+                }
+            } catch (IllegalArgumentException e) {
+                model.addAttribute("errorMessage", "Could not upload images: " + e.getMessage());
+                model.addAttribute("propertyTypes", House.PropertyType.values());
+                return "add-house";
+            }
+            house.setOwner(userService.getReference(principal.getId()));
             houseService.saveHouse(house);
             redirectAttributes.addFlashAttribute("successMessage", "House added successfully!");
             return "redirect:/my-houses";
@@ -74,13 +106,12 @@ public class HouseController {
     }
 
     @GetMapping("/edit/{id}")
-    public String editHouseForm(@PathVariable Long id, Model model) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        Optional<User> user = userService.findByUsername(auth.getName());
-        
-        if (user.isPresent()) {
+    public String editHouseForm(@PathVariable Long id,
+                                @AuthenticationPrincipal AuthenticatedUser principal,
+                                Model model) {
+        if (principal != null) {
             Optional<House> house = houseService.findById(id);
-            if (house.isPresent() && house.get().getOwner().getId().equals(user.get().getId())) {
+            if (house.isPresent() && house.get().getOwner().getId().equals(principal.getId())) {
                 model.addAttribute("house", house.get());
                 model.addAttribute("propertyTypes", House.PropertyType.values());
                 model.addAttribute("availabilityStatuses", House.AvailabilityStatus.values());
@@ -95,6 +126,7 @@ public class HouseController {
     public String editHouse(@PathVariable Long id, 
                            @Valid @ModelAttribute("house") House house, 
                            BindingResult result, 
+                           @AuthenticationPrincipal AuthenticatedUser principal,
                            Model model, 
                            RedirectAttributes redirectAttributes) {
         
@@ -104,12 +136,9 @@ public class HouseController {
             return "edit-house";
         }
 
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        Optional<User> user = userService.findByUsername(auth.getName());
-        
-        if (user.isPresent() && houseService.isOwner(id, user.get())) {
+        if (principal != null && houseService.isOwner(id, userService.getReference(principal.getId()))) {
             house.setId(id);
-            house.setOwner(user.get());
+            house.setOwner(userService.getReference(principal.getId()));
             houseService.updateHouse(house);
             redirectAttributes.addFlashAttribute("successMessage", "House updated successfully!");
             return "redirect:/my-houses";
@@ -122,11 +151,10 @@ public class HouseController {
     }
 
     @PostMapping("/delete/{id}")
-    public String deleteHouse(@PathVariable Long id, RedirectAttributes redirectAttributes) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        Optional<User> user = userService.findByUsername(auth.getName());
-        
-        if (user.isPresent() && houseService.isOwner(id, user.get())) {
+    public String deleteHouse(@PathVariable Long id,
+                              @AuthenticationPrincipal AuthenticatedUser principal,
+                              RedirectAttributes redirectAttributes) {
+        if (principal != null && houseService.isOwner(id, userService.getReference(principal.getId()))) {
             houseService.deleteHouse(id);
             redirectAttributes.addFlashAttribute("successMessage", "House deleted successfully!");
         } else {
@@ -135,5 +163,78 @@ public class HouseController {
         
         return "redirect:/my-houses";
     }
-}
 
+    @PostMapping("/{id}/images")
+    public String uploadImages(@PathVariable Long id,
+                               @RequestParam("imageFiles") List<MultipartFile> imageFiles,
+                               @AuthenticationPrincipal AuthenticatedUser principal,
+                               RedirectAttributes redirectAttributes) {
+        if (principal == null || !houseService.isOwner(id, userService.getReference(principal.getId()))) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Error uploading images.");
+            return "redirect:/my-houses";
+        }
+        try {
+            List<String> imageUrls = storeImages(imageFiles);
+            if (!imageUrls.isEmpty()) {
+                houseService.addImages(id, imageUrls);
+            }
+            redirectAttributes.addFlashAttribute("successMessage", imageUrls.size() + " image(s) uploaded successfully!");
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Could not upload images: " + e.getMessage());
+        }
+        return "redirect:/my-houses";
+    }
+
+    /**
+     * Imports listings from a CSV or JSON array request body for the current
+     * landlord. The body is read as a stream; see {@link HouseImportService}.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE})
+    @ResponseBody
+    public ResponseEntity<HouseImportResult> importHouses(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                          InputStream body,
+                                                          @AuthenticationPrincipal AuthenticatedUser principal) {
+        HouseImportService.Format format = contentType.toLowerCase().contains("csv")
+                ? HouseImportService.Format.CSV
+                : HouseImportService.Format.JSON;
+        HouseImportResult result = houseImportService.importHouses(principal.getId(), format, body);
+        return result.getStatus() == HouseImportResult.Status.FAILED
+                ? ResponseEntity.unprocessableEntity().body(result)
+                : ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/import/progress")
+    @ResponseBody
+    public ResponseEntity<HouseImportResult> importProgress(@AuthenticationPrincipal AuthenticatedUser principal) {
+        return houseImportService.getImportProgress(principal.getId())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportHouses(@RequestParam(defaultValue = "csv") String format,
+                                                              @AuthenticationPrincipal AuthenticatedUser principal) {
+        boolean csv = !"json".equalsIgnoreCase(format);
+        Long ownerId = principal.getId();
+        StreamingResponseBody body = output -> houseImportService.exportHouses(
+                ownerId, csv ? HouseImportService.Format.CSV : HouseImportService.Format.JSON, output);
+        return ResponseEntity.ok()
+                .contentType(csv ? MediaType.parseMediaType("text/csv") : MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"houses." + (csv ? "csv" : "json") + "\"")
+                .body(body);
+    }
+
+    // Browsers submit an empty part when no file is chosen
+    private List<String> storeImages(List<MultipartFile> files) {
+        List<String> imageUrls = new ArrayList<>();
+        if (files != null) {
+            for (MultipartFile file : files) {
+                if (!file.isEmpty()) {
+                    imageUrls.add(imageStorageService.store(file));
+                }
+            }
+        }
+        return imageUrls;
+    }
+}
@@ -0,0 +1,102 @@
+package com.houserental.controller;
+
+import com.houserental.service.ImageStorageService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Serves stored house images. Names are content hashes, so a found file is
+ * cached by clients for a year without revalidation. Files are written with
+ * Tomcat's sendfile support when the connector offers it, the zero-copy path
+ * where the kernel sends the file straight to the socket. Otherwise
+ * {@link FileChannel#transferTo} copies the body into the response stream
+ * through a buffer on the heap.
+ */
+@Controller
+public class ImageController {
+
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    private static final String REVALIDATE = "no-cache";
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private ImageStorageService imageStorageService;
+
+    @GetMapping("/images/{name:[0-9a-f]{64}\\.[a-z]+}")
+    public void original(@PathVariable String name,
+                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<Path> original = imageStorageService.findOriginal(name);
+        if (original.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        sendFile(original.get(), ImageStorageService.contentType(name), name, IMMUTABLE, request, response);
+    }
+
+    @GetMapping("/images/{width:\\d{1,4}}/{name:[0-9a-f]{64}\\.[a-z]+}")
+    public void thumbnail(@PathVariable int width, @PathVariable String name,
+                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<Path> thumbnail = imageStorageService.findThumbnail(width, name);
+        if (thumbnail.isPresent()) {
+            sendFile(thumbnail.get(), "image/jpeg", width + "/" + name, IMMUTABLE, request, response);
+            return;
+        }
+        // Not generated yet: serve the original until the thumbnail exists
+        Optional<Path> original = imageStorageService.findOriginal(name);
+        if (original.isEmpty() || !imageStorageService.isThumbnailWidth(width)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        sendFile(original.get(), ImageStorageService.contentType(name), null, REVALIDATE, request, response);
+    }
+
+    private static void sendFile(Path file, String contentType, String etag, String cacheControl,
+                                 HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String quotedEtag = etag == null ? null : "\"" + etag + "\"";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        if (quotedEtag != null) {
+            response.setHeader(HttpHeaders.ETAG, quotedEtag);
+            if (quotedEtag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            response.setContentType(contentType);
+            response.setContentLengthLong(size);
+            if ("HEAD".equals(request.getMethod())) {
+                return;
+            }
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, 0L);
+                request.setAttribute(SENDFILE_END, size);
+                return;
+            }
+            // Buffered copy: the servlet stream is not a file or socket channel
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, out);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.houserental.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDate;
+
+/**
+ * Booking request posted by a tenant through the API. The total amount is
+ * calculated from the house price, never taken from the client.
+ */
+public class BookingRequest {
+
+    @NotNull(message = "House is required")
+    private Long houseId;
+
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate;
+
+    @NotNull(message = "End date is required")
+    private LocalDate endDate;
+
+    @Size(max = 1000, message = "Notes must not exceed 1000 characters")
+    private String notes;
+
+    public Long getHouseId() { return houseId; }
+    public void setHouseId(Long houseId) { this.houseId = houseId; }
+
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+
+    public String getNotes() { return notes; }
+    public void setNotes(String notes) { this.notes = notes; }
+}
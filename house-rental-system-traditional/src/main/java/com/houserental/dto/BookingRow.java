@@ -0,0 +1,89 @@
+package com.houserental.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.houserental.entity.Booking;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a booking with the house and tenant columns shown
+ * in booking lists, selected in one query. Property order is the CSV export
+ * column order.
+ */
+@JsonPropertyOrder({
+        "id", "status", "startDate", "endDate", "totalAmount", "houseId", "houseTitle", "houseCity",
+        "tenantId", "tenantName", "tenantEmail", "tenantPhone", "notes", "rejectionReason", "createdAt"
+})
+public class BookingRow {
+
+    private final Long id;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final BigDecimal totalAmount;
+    private final Booking.BookingStatus status;
+    private final String notes;
+    private final String rejectionReason;
+    private final LocalDateTime createdAt;
+    private final Long houseId;
+    private final String houseTitle;
+    private final String houseCity;
+    private final Long tenantId;
+    private final String tenantName;
+    private final String tenantEmail;
+    private final String tenantPhone;
+
+    public BookingRow(Long id, LocalDate startDate, LocalDate endDate, BigDecimal totalAmount,
+                      Booking.BookingStatus status, String notes, String rejectionReason, LocalDateTime createdAt,
+                      Long houseId, String houseTitle, String houseCity,
+                      Long tenantId, String tenantFirstName, String tenantLastName,
+                      String tenantEmail, String tenantPhone) {
+        this.id = id;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.totalAmount = totalAmount;
+        this.status = status;
+        this.notes = notes;
+        this.rejectionReason = rejectionReason;
+        this.createdAt = createdAt;
+        this.houseId = houseId;
+        this.houseTitle = houseTitle;
+        this.houseCity = houseCity;
+        this.tenantId = tenantId;
+        this.tenantName = tenantFirstName + " " + tenantLastName;
+        this.tenantEmail = tenantEmail;
+        this.tenantPhone = tenantPhone;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+
+    public LocalDate getStartDate() { return startDate; }
+
+    public LocalDate getEndDate() { return endDate; }
+
+    public BigDecimal getTotalAmount() { return totalAmount; }
+
+    public Booking.BookingStatus getStatus() { return status; }
+
+    public String getNotes() { return notes; }
+
+    public String getRejectionReason() { return rejectionReason; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public Long getHouseId() { return houseId; }
+
+    public String getHouseTitle() { return houseTitle; }
+
+    public String getHouseCity() { return houseCity; }
+
+    public Long getTenantId() { return tenantId; }
+
+    public String getTenantName() { return tenantName; }
+
+    public String getTenantEmail() { return tenantEmail; }
+
+    public String getTenantPhone() { return tenantPhone; }
+}
@@ -0,0 +1,23 @@
+package com.houserental.dto;
+
+import java.util.List;
+
+/**
+ * One page of API results. {@code nextCursor} is passed back as the
+ * {@code cursor} parameter to fetch the following page and is null on the
+ * last one.
+ */
+public class CursorPage<T> {
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() { return items; }
+
+    public String getNextCursor() { return nextCursor; }
+}
@@ -0,0 +1,104 @@
+package com.houserental.dto;
+
+import com.houserental.entity.House;
+import com.houserental.service.ImageStorageService;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of the house columns shown on listing and search cards.
+ */
+public class HouseCard {
+
+    private final Long id;
+    private final String title;
+    private final String address;
+    private final String city;
+    private final String state;
+    private final String zipCode;
+    private final BigDecimal pricePerMonth;
+    private final Integer bedrooms;
+    private final Integer bathrooms;
+    private final Integer squareFeet;
+    private final House.PropertyType propertyType;
+    private final House.AvailabilityStatus availabilityStatus;
+    private final long ratingSum;
+    private final int ratingCount;
+    private final String thumbnailUrl;
+    private final int amenityCount;
+    private final Double latitude;
+    private final Double longitude;
+    private final LocalDateTime createdAt;
+
+    public HouseCard(Long id, String title, String address, String city, String state, String zipCode,
+                     BigDecimal pricePerMonth, Integer bedrooms, Integer bathrooms, Integer squareFeet,
+                     House.PropertyType propertyType, House.AvailabilityStatus availabilityStatus,
+                     long ratingSum, int ratingCount, String thumbnailUrl, int amenityCount,
+                     Double latitude, Double longitude, LocalDateTime createdAt) {
+        this.id = id;
+        this.title = title;
+        this.address = address;
+        this.city = city;
+        this.state = state;
+        this.zipCode = zipCode;
+        this.pricePerMonth = pricePerMonth;
+        this.bedrooms = bedrooms;
+        this.bathrooms = bathrooms;
+        this.squareFeet = squareFeet;
+        this.propertyType = propertyType;
+        this.availabilityStatus = availabilityStatus;
+        this.ratingSum = ratingSum;
+        this.ratingCount = ratingCount;
+        this.thumbnailUrl = ImageStorageService.thumbnailUrl(thumbnailUrl, ImageStorageService.CARD_THUMBNAIL_WIDTH);
+        this.amenityCount = amenityCount;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.createdAt = createdAt;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+
+    public String getTitle() { return title; }
+
+    public String getAddress() { return address; }
+
+    public String getCity() { return city; }
+
+    public String getState() { return state; }
+
+    public String getZipCode() { return zipCode; }
+
+    public BigDecimal getPricePerMonth() { return pricePerMonth; }
+
+    public Integer getBedrooms() { return bedrooms; }
+
+    public Integer getBathrooms() { return bathrooms; }
+
+    public Integer getSquareFeet() { return squareFeet; }
+
+    public House.PropertyType getPropertyType() { return propertyType; }
+
+    public House.AvailabilityStatus getAvailabilityStatus() { return availabilityStatus; }
+
+    public int getRatingCount() { return ratingCount; }
+
+    public String getThumbnailUrl() { return thumbnailUrl; }
+
+    public int getAmenityCount() { return amenityCount; }
+
+    public Double getLatitude() { return latitude; }
+
+    public Double getLongitude() { return longitude; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public Double getAverageRating() {
+        return ratingCount == 0 ? null : (double) ratingSum / ratingCount;
+    }
+
+    public String getFullAddress() {
+        return address + ", " + city + ", " + state + " " + zipCode;
+    }
+}
@@ -0,0 +1,130 @@
+package com.houserental.dto;
+
+import com.houserental.entity.House;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A read-only house for the detail page and the JSON API, with the owner
+ * reduced to id and name. Immutable, so one instance can be cached and
+ * shared by all requests. Built inside a transaction or from a house whose
+ * owner and collections are initialized.
+ */
+public class HouseDetail {
+
+    private final Long id;
+    private final String title;
+    private final String description;
+    private final String address;
+    private final String city;
+    private final String state;
+    private final String zipCode;
+    private final String country;
+    private final Double latitude;
+    private final Double longitude;
+    private final BigDecimal pricePerMonth;
+    private final BigDecimal securityDeposit;
+    private final Integer bedrooms;
+    private final Integer bathrooms;
+    private final Integer squareFeet;
+    private final House.PropertyType propertyType;
+    private final House.AvailabilityStatus availabilityStatus;
+    private final Set<House.Feature> features;
+    private final List<String> amenities;
+    private final List<String> images;
+    private final Double averageRating;
+    private final int ratingCount;
+    private final Long ownerId;
+    private final String ownerName;
+    private final LocalDateTime createdAt;
+
+    public HouseDetail(House house) {
+        this.id = house.getId();
+        this.title = house.getTitle();
+        this.description = house.getDescription();
+        this.address = house.getAddress();
+        this.city = house.getCity();
+        this.state = house.getState();
+        this.zipCode = house.getZipCode();
+        this.country = house.getCountry();
+        this.latitude = house.getLatitude();
+        this.longitude = house.getLongitude();
+        this.pricePerMonth = house.getPricePerMonth();
+        this.securityDeposit = house.getSecurityDeposit();
+        this.bedrooms = house.getBedrooms();
+        this.bathrooms = house.getBathrooms();
+        this.squareFeet = house.getSquareFeet();
+        this.propertyType = house.getPropertyType();
+        this.availabilityStatus = house.getAvailabilityStatus();
+        Set<House.Feature> features = EnumSet.noneOf(House.Feature.class);
+        for (House.Feature feature : House.Feature.values()) {
+            if ((house.getFeatureMask() & feature.bit()) != 0) {
+                features.add(feature);
+            }
+        }
+        this.features = Collections.unmodifiableSet(features);
+        this.amenities = house.getAmenities() == null ? List.of() : List.copyOf(house.getAmenities());
+        this.images = house.getImages() == null ? List.of() : List.copyOf(house.getImages());
+        this.averageRating = house.getAverageRating();
+        this.ratingCount = house.getRatingCount();
+        this.ownerId = house.getOwner().getId();
+        this.ownerName = house.getOwner().getFirstName() + " " + house.getOwner().getLastName();
+        this.createdAt = house.getCreatedAt();
+    }
+
+    // Getters
+    public Long getId() { return id; }
+
+    public String getTitle() { return title; }
+
+    public String getDescription() { return description; }
+
+    public String getAddress() { return address; }
+
+    public String getCity() { return city; }
+
+    public String getState() { return state; }
+
+    public String getZipCode() { return zipCode; }
+
+    public String getCountry() { return country; }
+
+    public Double getLatitude() { return latitude; }
+
+    public Double getLongitude() { return longitude; }
+
+    public BigDecimal getPricePerMonth() { return pricePerMonth; }
+
+    public BigDecimal getSecurityDeposit() { return securityDeposit; }
+
+    public Integer getBedrooms() { return bedrooms; }
+
+    public Integer getBathrooms() { return bathrooms; }
+
+    public Integer getSquareFeet() { return squareFeet; }
+
+    public House.PropertyType getPropertyType() { return propertyType; }
+
+    public House.AvailabilityStatus getAvailabilityStatus() { return availabilityStatus; }
+
+    public Set<House.Feature> getFeatures() { return features; }
+
+    public List<String> getAmenities() { return amenities; }
+
+    public List<String> getImages() { return images; }
+
+    public Double getAverageRating() { return averageRating; }
+
+    public int getRatingCount() { return ratingCount; }
+
+    public Long getOwnerId() { return ownerId; }
+
+    public String getOwnerName() { return ownerName; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,199 @@
+package com.houserental.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.houserental.entity.House;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One listing row in the bulk CSV/JSON import and export format. Property
+ * order is the CSV column order; images and amenities are ';'-separated in CSV.
+ */
+@JsonPropertyOrder({
+        "id", "title", "description", "address", "city", "state", "zipCode", "country", "latitude", "longitude",
+        "pricePerMonth", "securityDeposit", "bedrooms", "bathrooms", "squareFeet",
+        "propertyType", "availabilityStatus", "petsAllowed", "smokingAllowed", "furnished",
+        "parkingAvailable", "laundryAvailable", "airConditioning", "heating", "internet",
+        "images", "amenities"
+})
+public class HouseImportRecord {
+
+    private Long id;
+    private String title;
+    private String description;
+    private String address;
+    private String city;
+    private String state;
+    private String zipCode;
+    private String country;
+    private Double latitude;
+    private Double longitude;
+    private BigDecimal pricePerMonth;
+    private BigDecimal securityDeposit;
+    private Integer bedrooms;
+    private Integer bathrooms;
+    private Integer squareFeet;
+    private House.PropertyType propertyType;
+    private House.AvailabilityStatus availabilityStatus;
+    private Boolean petsAllowed;
+    private Boolean smokingAllowed;
+    private Boolean furnished;
+    private Boolean parkingAvailable;
+    private Boolean laundryAvailable;
+    private Boolean airConditioning;
+    private Boolean heating;
+    private Boolean internet;
+    private List<String> images;
+    private List<String> amenities;
+
+    public static HouseImportRecord from(House house) {
+        HouseImportRecord record = new HouseImportRecord();
+        record.id = house.getId();
+        record.title = house.getTitle();
+        record.description = house.getDescription();
+        record.address = house.getAddress();
+        record.city = house.getCity();
+        record.state = house.getState();
+        record.zipCode = house.getZipCode();
+        record.country = house.getCountry();
+        record.latitude = house.getLatitude();
+        record.longitude = house.getLongitude();
+        record.pricePerMonth = house.getPricePerMonth();
+        record.securityDeposit = house.getSecurityDeposit();
+        record.bedrooms = house.getBedrooms();
+        record.bathrooms = house.getBathrooms();
+        record.squareFeet = house.getSquareFeet();
+        record.propertyType = house.getPropertyType();
+        record.availabilityStatus = house.getAvailabilityStatus();
+        record.petsAllowed = house.getPetsAllowed();
+        record.smokingAllowed = house.getSmokingAllowed();
+        record.furnished = house.getFurnished();
+        record.parkingAvailable = house.getParkingAvailable();
+        record.laundryAvailable = house.getLaundryAvailable();
+        record.airConditioning = house.getAirConditioning();
+        record.heating = house.getHeating();
+        record.internet = house.getInternet();
+        record.images = house.getImages() == null ? null : new ArrayList<>(house.getImages());
+        record.amenities = house.getAmenities() == null ? null : new ArrayList<>(house.getAmenities());
+        return record;
+    }
+
+    /**
+     * Builds a new, unsaved house. The id column is ignored on import; unset
+     * optional values keep the entity defaults.
+     */
+    public House toHouse() {
+        House house = new House();
+        house.setTitle(title);
+        house.setDescription(description);
+        house.setAddress(address);
+        house.setCity(city);
+        house.setState(state);
+        house.setZipCode(zipCode);
+        if (country != null) house.setCountry(country);
+        house.setLatitude(latitude);
+        house.setLongitude(longitude);
+        house.setPricePerMonth(pricePerMonth);
+        house.setSecurityDeposit(securityDeposit);
+        house.setBedrooms(bedrooms);
+        house.setBathrooms(bathrooms);
+        house.setSquareFeet(squareFeet);
+        house.setPropertyType(propertyType);
+        if (availabilityStatus != null) house.setAvailabilityStatus(availabilityStatus);
+        if (petsAllowed != null) house.setPetsAllowed(petsAllowed);
+        if (smokingAllowed != null) house.setSmokingAllowed(smokingAllowed);
+        if (furnished != null) house.setFurnished(furnished);
+        if (parkingAvailable != null) house.setParkingAvailable(parkingAvailable);
+        if (laundryAvailable != null) house.setLaundryAvailable(laundryAvailable);
+        if (airConditioning != null) house.setAirConditioning(airConditioning);
+        if (heating != null) house.setHeating(heating);
+        if (internet != null) house.setInternet(internet);
+        house.setImages(images == null ? new ArrayList<>() : new ArrayList<>(images));
+        house.setAmenities(amenities == null ? new ArrayList<>() : new ArrayList<>(amenities));
+        return house;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public String getAddress() { return address; }
+    public void setAddress(String address) { this.address = address; }
+
+    public String getCity() { return city; }
+    public void setCity(String city) { this.city = city; }
+
+    public String getState() { return state; }
+    public void setState(String state) { this.state = state; }
+
+    public String getZipCode() { return zipCode; }
+    public void setZipCode(String zipCode) { this.zipCode = zipCode; }
+
+    public String getCountry() { return country; }
+    public void setCountry(String country) { this.country = country; }
+
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+
+    public BigDecimal getPricePerMonth() { return pricePerMonth; }
+    public void setPricePerMonth(BigDecimal pricePerMonth) { this.pricePerMonth = pricePerMonth; }
+
+    public BigDecimal getSecurityDeposit() { return securityDeposit; }
+    public void setSecurityDeposit(BigDecimal securityDeposit) { this.securityDeposit = securityDeposit; }
+
+    public Integer getBedrooms() { return bedrooms; }
+    public void setBedrooms(Integer bedrooms) { this.bedrooms = bedrooms; }
+
+    public Integer getBathrooms() { return bathrooms; }
+    public void setBathrooms(Integer bathrooms) { this.bathrooms = bathrooms; }
+
+    public Integer getSquareFeet() { return squareFeet; }
+    public void setSquareFeet(Integer squareFeet) { this.squareFeet = squareFeet; }
+
+    public House.PropertyType getPropertyType() { return propertyType; }
+    public void setPropertyType(House.PropertyType propertyType) { this.propertyType = propertyType; }
+
+    public House.AvailabilityStatus getAvailabilityStatus() { return availabilityStatus; }
+    public void setAvailabilityStatus(House.AvailabilityStatus availabilityStatus) { this.availabilityStatus = availabilityStatus; }
+
+    public Boolean getPetsAllowed() { return petsAllowed; }
+    public void setPetsAllowed(Boolean petsAllowed) { this.petsAllowed = petsAllowed; }
+
+    public Boolean getSmokingAllowed() { return smokingAllowed; }
+    public void setSmokingAllowed(Boolean smokingAllowed) { this.smokingAllowed = smokingAllowed; }
+
+    public Boolean getFurnished() { return furnished; }
+    public void setFurnished(Boolean furnished) { this.furnished = furnished; }
+
+    public Boolean getParkingAvailable() { return parkingAvailable; }
+    public void setParkingAvailable(Boolean parkingAvailable) { this.parkingAvailable = parkingAvailable; }
+
+    public Boolean getLaundryAvailable() { return laundryAvailable; }
+    public void setLaundryAvailable(Boolean laundryAvailable) { this.laundryAvailable = laundryAvailable; }
+
+    public Boolean getAirConditioning() { return airConditioning; }
+    public void setAirConditioning(Boolean airConditioning) { this.airConditioning = airConditioning; }
+
+    public Boolean getHeating() { return heating; }
+    public void setHeating(Boolean heating) { this.heating = heating; }
+
+    public Boolean getInternet() { return internet; }
+    public void setInternet(Boolean internet) { this.internet = internet; }
+
+    public List<String> getImages() { return images; }
+    public void setImages(List<String> images) { this.images = images; }
+
+    public List<String> getAmenities() { return amenities; }
+    public void setAmenities(List<String> amenities) { this.amenities = amenities; }
+}
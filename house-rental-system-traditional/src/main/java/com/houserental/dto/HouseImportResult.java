@@ -0,0 +1,73 @@
+package com.houserental.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Progress and outcome of a bulk listing import. Updated by the importing
+ * thread while the upload is processed and read by progress requests.
+ */
+public class HouseImportResult {
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final List<String> errors = new ArrayList<>();
+    private volatile Status status = Status.RUNNING;
+    private volatile int processed;
+    private volatile int imported;
+    private volatile int rejected;
+    private volatile String failureReason;
+    private volatile LocalDateTime finishedAt;
+
+    public void recordProcessed() {
+        processed++;
+    }
+
+    public void recordImported(int count) {
+        imported += count;
+    }
+
+    public void recordRejected(String error, int maxErrors) {
+        rejected++;
+        synchronized (errors) {
+            if (errors.size() < maxErrors) {
+                errors.add(error);
+            }
+        }
+    }
+
+    public void complete() {
+        finishedAt = LocalDateTime.now();
+        status = Status.COMPLETED;
+    }
+
+    public void fail(String reason) {
+        failureReason = reason;
+        finishedAt = LocalDateTime.now();
+        status = Status.FAILED;
+    }
+
+    public Status getStatus() { return status; }
+
+    public int getProcessed() { return processed; }
+
+    public int getImported() { return imported; }
+
+    public int getRejected() { return rejected; }
+
+    public String getFailureReason() { return failureReason; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+
+    public List<String> getErrors() {
+        synchronized (errors) {
+            return new ArrayList<>(errors);
+        }
+    }
+}
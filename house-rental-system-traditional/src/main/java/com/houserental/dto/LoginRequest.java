@@ -0,0 +1,21 @@
+package com.houserental.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * Credentials posted to the API login endpoint.
+ */
+public class LoginRequest {
+
+    @NotBlank(message = "Username is required")
+    private String username;
+
+    @NotBlank(message = "Password is required")
+    private String password;
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public String getPassword() { return password; }
+    public void setPassword(String password) { this.password = password; }
+}
@@ -0,0 +1,79 @@
+package com.houserental.dto;
+
+import com.houserental.entity.House;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result counts for each search filter value. A filter's counts honour every
+ * other active filter but not the filter itself, so they show how many houses
+ * switching to that value would return.
+ */
+public class SearchFacets {
+
+    private final long total;
+    private final Map<House.PropertyType, Long> propertyTypes;
+    private final Map<Integer, Long> minBedrooms;
+    private final Map<Integer, Long> minBathrooms;
+    private final List<PriceBucket> priceBuckets;
+    private final Map<House.Feature, Long> features;
+
+    public SearchFacets(long total, Map<House.PropertyType, Long> propertyTypes,
+                        Map<Integer, Long> minBedrooms, Map<Integer, Long> minBathrooms,
+                        List<PriceBucket> priceBuckets, Map<House.Feature, Long> features) {
+        this.total = total;
+        this.propertyTypes = Collections.unmodifiableMap(propertyTypes);
+        this.minBedrooms = Collections.unmodifiableMap(minBedrooms);
+        this.minBathrooms = Collections.unmodifiableMap(minBathrooms);
+        this.priceBuckets = List.copyOf(priceBuckets);
+        this.features = Collections.unmodifiableMap(features);
+    }
+
+    public long getTotal() { return total; }
+
+    public Map<House.PropertyType, Long> getPropertyTypes() { return propertyTypes; }
+
+    // Houses with at least n bedrooms, keyed by n
+    public Map<Integer, Long> getMinBedrooms() { return minBedrooms; }
+
+    // Houses with at least n bathrooms, keyed by n
+    public Map<Integer, Long> getMinBathrooms() { return minBathrooms; }
+
+    public List<PriceBucket> getPriceBuckets() { return priceBuckets; }
+
+    // Matching houses offering each feature
+    public Map<House.Feature, Long> getFeatures() { return features; }
+
+    /**
+     * Monthly prices from {@code min} inclusive up to {@code max} exclusive;
+     * {@code max} is null for the open-ended top bucket.
+     */
+    public static class PriceBucket {
+
+        private static final BigDecimal ONE_CENT = new BigDecimal("0.01");
+
+        private final BigDecimal min;
+        private final BigDecimal max;
+        private final long count;
+
+        public PriceBucket(BigDecimal min, BigDecimal max, long count) {
+            this.min = min;
+            this.max = max;
+            this.count = count;
+        }
+
+        public BigDecimal getMin() { return min; }
+
+        public BigDecimal getMax() { return max; }
+
+        public long getCount() { return count; }
+
+        // The search maxPrice filter is inclusive, so links stop a cent below max
+        public BigDecimal getMaxPriceFilter() {
+            return max == null ? null : max.subtract(ONE_CENT);
+        }
+    }
+}
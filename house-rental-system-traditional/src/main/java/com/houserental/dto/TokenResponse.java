@@ -0,0 +1,39 @@
+package com.houserental.dto;
+
+import com.houserental.entity.User;
+
+import java.time.Instant;
+
+/**
+ * Bearer token returned by the API login endpoint, with the account it was
+ * issued to.
+ */
+public class TokenResponse {
+
+    private final String token;
+    private final String tokenType = "Bearer";
+    private final Instant expiresAt;
+    private final Long userId;
+    private final String username;
+    private final User.Role role;
+
+    public TokenResponse(String token, Instant expiresAt, Long userId, String username, User.Role role) {
+        this.token = token;
+        this.expiresAt = expiresAt;
+        this.userId = userId;
+        this.username = username;
+        this.role = role;
+    }
+
+    public String getToken() { return token; }
+
+    public String getTokenType() { return tokenType; }
+
+    public Instant getExpiresAt() { return expiresAt; }
+
+    public Long getUserId() { return userId; }
+
+    public String getUsername() { return username; }
+
+    public User.Role getRole() { return role; }
+}
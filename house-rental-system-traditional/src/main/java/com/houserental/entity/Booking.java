@@ -10,7 +10,10 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_house_status_dates", columnList = "house_id, status, start_date, end_date"),
+        @Index(name = "idx_bookings_tenant_created", columnList = "tenant_id, created_at")
+})
 public class Booking {
     
     @Id
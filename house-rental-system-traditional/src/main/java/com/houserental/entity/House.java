@@ -2,19 +2,28 @@ package com.houserental.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Entity
-@Table(name = "houses")
+@Table(name = "houses", indexes = {
+        @Index(name = "idx_houses_status_created", columnList = "availability_status, created_at, id"),
+        @Index(name = "idx_houses_owner", columnList = "owner_id"),
+        @Index(name = "idx_houses_location", columnList = "latitude, longitude")
+})
+@NamedEntityGraph(name = "House.withImages", attributeNodes = @NamedAttributeNode("images"))
 public class House {
     
+    // Pooled sequence ids let bulk imports batch their inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "houses_id_seq")
+    @SequenceGenerator(name = "houses_id_seq", sequenceName = "houses_id_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Title is required")
@@ -51,6 +60,14 @@ public class House {
     @Column(nullable = false)
     private String country = "USA";
     
+    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+    private Double latitude;
+    
+    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+    private Double longitude;
+    
     @NotNull(message = "Price per month is required")
     @DecimalMin(value = "0.0", inclusive = false, message = "Price must be greater than 0")
     @Column(name = "price_per_month", nullable = false, precision = 10, scale = 2)
@@ -102,16 +119,54 @@ public class House {
     
     private Boolean internet = false;
     
+    // The boolean features above as House.Feature bits, kept in step on every write
+    @ColumnDefault("0")
+    @Column(name = "feature_mask", nullable = false)
+    private int featureMask;
+    
+    // Kept in upload order; the first image is the cover shown on cards
     @ElementCollection
-    @CollectionTable(name = "house_images", joinColumns = @JoinColumn(name = "house_id"))
+    @CollectionTable(name = "house_images", joinColumns = @JoinColumn(name = "house_id"),
+                     indexes = @Index(name = "idx_house_images_house", columnList = "house_id"))
+    @OrderColumn(name = "image_order")
     @Column(name = "image_url")
     private List<String> images;
     
     @ElementCollection
-    @CollectionTable(name = "house_amenities", joinColumns = @JoinColumn(name = "house_id"))
+    @CollectionTable(name = "house_amenities", joinColumns = @JoinColumn(name = "house_id"),
+                     indexes = @Index(name = "idx_house_amenities_house", columnList = "house_id"))
     @Column(name = "amenity")
     private List<String> amenities;
     
+    // Review aggregates are maintained by ReviewService through bulk updates only
+    @ColumnDefault("0")
+    @Column(name = "rating_sum", nullable = false, insertable = false, updatable = false)
+    private long ratingSum;
+    
+    @ColumnDefault("0")
+    @Column(name = "rating_count", nullable = false, insertable = false, updatable = false)
+    private int ratingCount;
+    
+    @ColumnDefault("0")
+    @Column(name = "one_star_count", nullable = false, insertable = false, updatable = false)
+    private int oneStarCount;
+    
+    @ColumnDefault("0")
+    @Column(name = "two_star_count", nullable = false, insertable = false, updatable = false)
+    private int twoStarCount;
+    
+    @ColumnDefault("0")
+    @Column(name = "three_star_count", nullable = false, insertable = false, updatable = false)
+    private int threeStarCount;
+    
+    @ColumnDefault("0")
+    @Column(name = "four_star_count", nullable = false, insertable = false, updatable = false)
+    private int fourStarCount;
+    
+    @ColumnDefault("0")
+    @Column(name = "five_star_count", nullable = false, insertable = false, updatable = false)
+    private int fiveStarCount;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", nullable = false)
     private User owner;
@@ -138,6 +193,40 @@ public class House {
         AVAILABLE, RENTED, MAINTENANCE, UNAVAILABLE
     }
     
+    // Boolean features encoded one bit per constant; only append new constants
+    public enum Feature {
+        PETS_ALLOWED("Pets allowed"),
+        SMOKING_ALLOWED("Smoking allowed"),
+        FURNISHED("Furnished"),
+        PARKING_AVAILABLE("Parking"),
+        LAUNDRY_AVAILABLE("Laundry"),
+        AIR_CONDITIONING("Air conditioning"),
+        HEATING("Heating"),
+        INTERNET("Internet");
+        
+        private final String label;
+        
+        Feature(String label) {
+            this.label = label;
+        }
+        
+        public int bit() { return 1 << ordinal(); }
+        
+        public String getLabel() { return label; }
+        
+        public static int maskOf(Collection<Feature> features) {
+            int mask = 0;
+            if (features != null) {
+                for (Feature feature : features) {
+                    if (feature != null) {
+                        mask |= feature.bit();
+                    }
+                }
+            }
+            return mask;
+        }
+    }
+    
     // Constructors
     public House() {}
     
@@ -181,6 +270,12 @@ public class House {
     public String getCountry() { return country; }
     public void setCountry(String country) { this.country = country; }
     
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+    
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+    
     public BigDecimal getPricePerMonth() { return pricePerMonth; }
     public void setPricePerMonth(BigDecimal pricePerMonth) { this.pricePerMonth = pricePerMonth; }
     
@@ -232,6 +327,20 @@ public class House {
     public List<String> getAmenities() { return amenities; }
     public void setAmenities(List<String> amenities) { this.amenities = amenities; }
     
+    public long getRatingSum() { return ratingSum; }
+    
+    public int getRatingCount() { return ratingCount; }
+    
+    public int getOneStarCount() { return oneStarCount; }
+    
+    public int getTwoStarCount() { return twoStarCount; }
+    
+    public int getThreeStarCount() { return threeStarCount; }
+    
+    public int getFourStarCount() { return fourStarCount; }
+    
+    public int getFiveStarCount() { return fiveStarCount; }
+    
     public User getOwner() { return owner; }
     public void setOwner(User owner) { this.owner = owner; }
     
@@ -247,6 +356,29 @@ public class House {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
     
+    @PrePersist
+    @PreUpdate
+    void updateFeatureMask() {
+        featureMask = getFeatureMask();
+    }
+    
+    public int getFeatureMask() {
+        int mask = 0;
+        if (Boolean.TRUE.equals(petsAllowed)) mask |= Feature.PETS_ALLOWED.bit();
+        if (Boolean.TRUE.equals(smokingAllowed)) mask |= Feature.SMOKING_ALLOWED.bit();
+        if (Boolean.TRUE.equals(furnished)) mask |= Feature.FURNISHED.bit();
+        if (Boolean.TRUE.equals(parkingAvailable)) mask |= Feature.PARKING_AVAILABLE.bit();
+        if (Boolean.TRUE.equals(laundryAvailable)) mask |= Feature.LAUNDRY_AVAILABLE.bit();
+        if (Boolean.TRUE.equals(airConditioning)) mask |= Feature.AIR_CONDITIONING.bit();
+        if (Boolean.TRUE.equals(heating)) mask |= Feature.HEATING.bit();
+        if (Boolean.TRUE.equals(internet)) mask |= Feature.INTERNET.bit();
+        return mask;
+    }
+    
+    public Double getAverageRating() {
+        return ratingCount == 0 ? null : (double) ratingSum / ratingCount;
+    }
+    
     public String getFullAddress() {
         return address + ", " + city + ", " + state + " " + zipCode;
     }
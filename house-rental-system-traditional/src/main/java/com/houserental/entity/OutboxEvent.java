@@ -0,0 +1,89 @@
+package com.houserental.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * A domain event written in the same transaction as the change it
+ * describes, delivered to the {@code DomainEventHandler}s after commit.
+ * The payload is a JSON object whose fields depend on the event type.
+ */
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "aggregate_type", nullable = false, length = 20)
+    private AggregateType aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 40)
+    private EventType eventType;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "processed_at")
+    private Instant processedAt;
+
+    @Column(name = "failed_at")
+    private Instant failedAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    public enum AggregateType {
+        BOOKING, HOUSE
+    }
+
+    public enum EventType {
+        BOOKING_REQUESTED, BOOKING_APPROVED, BOOKING_REJECTED, BOOKING_CANCELLED, BOOKING_STATUS_CHANGED,
+        HOUSE_CREATED, HOUSE_UPDATED, HOUSE_DELETED
+    }
+
+    // Constructors
+    public OutboxEvent() {}
+
+    public OutboxEvent(AggregateType aggregateType, Long aggregateId, EventType eventType, String payload) {
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdAt = Instant.now();
+    }
+
+    // Getters
+    public Long getId() { return id; }
+
+    public AggregateType getAggregateType() { return aggregateType; }
+
+    public Long getAggregateId() { return aggregateId; }
+
+    public EventType getEventType() { return eventType; }
+
+    public String getPayload() { return payload; }
+
+    public Instant getCreatedAt() { return createdAt; }
+
+    public int getAttempts() { return attempts; }
+
+    public Instant getProcessedAt() { return processedAt; }
+
+    public Instant getFailedAt() { return failedAt; }
+
+    public String getLastError() { return lastError; }
+}
@@ -0,0 +1,41 @@
+package com.houserental.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Time-limited ownership of a background job that must run on one node at
+ * a time. The owner renews the lease while it works; another node takes
+ * over once it has expired.
+ */
+@Entity
+@Table(name = "outbox_leases")
+public class OutboxLease {
+
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    @Column(nullable = false, length = 100)
+    private String owner;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    // Constructors
+    public OutboxLease() {}
+
+    public OutboxLease(String name, String owner, Instant expiresAt) {
+        this.name = name;
+        this.owner = owner;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters
+    public String getName() { return name; }
+
+    public String getOwner() { return owner; }
+
+    public Instant getExpiresAt() { return expiresAt; }
+}
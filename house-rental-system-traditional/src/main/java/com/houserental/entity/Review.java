@@ -8,7 +8,10 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews", indexes = {
+        @Index(name = "idx_reviews_house_created", columnList = "house_id, created_at"),
+        @Index(name = "idx_reviews_reviewer", columnList = "reviewer_id")
+})
 public class Review {
     
     @Id
@@ -0,0 +1,40 @@
+package com.houserental.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A JWT id revoked before its expiry. Rows are append-only; nodes pick up
+ * new ones by id and the row is purged once the token would have expired.
+ */
+@Entity
+@Table(name = "revoked_tokens")
+public class RevokedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "token_id", nullable = false, unique = true)
+    private UUID tokenId;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    // Constructors
+    public RevokedToken() {}
+
+    public RevokedToken(UUID tokenId, Instant expiresAt) {
+        this.tokenId = tokenId;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+
+    public UUID getTokenId() { return tokenId; }
+
+    public Instant getExpiresAt() { return expiresAt; }
+}
@@ -0,0 +1,79 @@
+package com.houserental.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Dashboard counters for one user, kept in step with house and booking
+ * writes so the dashboard reads a single row by primary key. Landlord
+ * counters cover bookings on the user's houses; the tenant counter covers
+ * bookings the user made.
+ */
+@Entity
+@Table(name = "user_stats")
+public class UserStats {
+
+    // Booking statuses whose amount counts towards the owner's revenue
+    public static final Set<Booking.BookingStatus> REVENUE_STATUSES = EnumSet.of(
+            Booking.BookingStatus.APPROVED, Booking.BookingStatus.ACTIVE, Booking.BookingStatus.COMPLETED);
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @ColumnDefault("0")
+    @Column(name = "house_count", nullable = false)
+    private long houseCount;
+
+    @ColumnDefault("0")
+    @Column(name = "tenant_booking_count", nullable = false)
+    private long tenantBookingCount;
+
+    @ColumnDefault("0")
+    @Column(name = "pending_booking_count", nullable = false)
+    private long pendingBookingCount;
+
+    @ColumnDefault("0")
+    @Column(name = "approved_booking_count", nullable = false)
+    private long approvedBookingCount;
+
+    @ColumnDefault("0")
+    @Column(name = "active_booking_count", nullable = false)
+    private long activeBookingCount;
+
+    @ColumnDefault("0")
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public UserStats() {}
+
+    public UserStats(Long userId) {
+        this.userId = userId;
+    }
+
+    // Getters
+    public Long getUserId() { return userId; }
+
+    public long getHouseCount() { return houseCount; }
+
+    public long getTenantBookingCount() { return tenantBookingCount; }
+
+    public long getPendingBookingCount() { return pendingBookingCount; }
+
+    public long getApprovedBookingCount() { return approvedBookingCount; }
+
+    public long getActiveBookingCount() { return activeBookingCount; }
+
+    public BigDecimal getRevenue() { return revenue; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
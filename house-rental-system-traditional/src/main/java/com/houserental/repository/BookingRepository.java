@@ -1,19 +1,32 @@
 package com.houserental.repository;
 
+import com.houserental.dto.BookingRow;
 import com.houserental.entity.Booking;
 import com.houserental.entity.House;
 import com.houserental.entity.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
     
+    // Booking rows with their house and tenant columns in one select, newest first
+    String ROW_SELECT =
+            "SELECT new com.houserental.dto.BookingRow(b.id, b.startDate, b.endDate, b.totalAmount, b.status, " +
+            "b.notes, b.rejectionReason, b.createdAt, h.id, h.title, h.city, " +
+            "t.id, t.firstName, t.lastName, t.email, t.phoneNumber) " +
+            "FROM Booking b JOIN b.house h JOIN b.tenant t ";
+    String ROWS_BEFORE = "AND (b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) ";
+    String NEWEST_FIRST = "ORDER BY b.createdAt DESC, b.id DESC";
+    
     List<Booking> findByTenant(User tenant);
     
     List<Booking> findByHouse(House house);
@@ -31,6 +44,32 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
                                         @Param("startDate") LocalDate startDate, 
                                         @Param("endDate") LocalDate endDate);
     
+    @Query(ROW_SELECT + "WHERE h.owner.id = :ownerId AND (:status IS NULL OR b.status = :status) " + NEWEST_FIRST)
+    Slice<BookingRow> findFirstRowsByOwner(@Param("ownerId") Long ownerId,
+                                           @Param("status") Booking.BookingStatus status,
+                                           Pageable pageable);
+    
+    @Query(ROW_SELECT + "WHERE h.owner.id = :ownerId AND (:status IS NULL OR b.status = :status) " +
+           ROWS_BEFORE + NEWEST_FIRST)
+    Slice<BookingRow> findRowsByOwnerBefore(@Param("ownerId") Long ownerId,
+                                            @Param("status") Booking.BookingStatus status,
+                                            @Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") Long id,
+                                            Pageable pageable);
+    
+    @Query(ROW_SELECT + "WHERE t.id = :tenantId AND (:status IS NULL OR b.status = :status) " + NEWEST_FIRST)
+    Slice<BookingRow> findFirstRowsByTenant(@Param("tenantId") Long tenantId,
+                                            @Param("status") Booking.BookingStatus status,
+                                            Pageable pageable);
+    
+    @Query(ROW_SELECT + "WHERE t.id = :tenantId AND (:status IS NULL OR b.status = :status) " +
+           ROWS_BEFORE + NEWEST_FIRST)
+    Slice<BookingRow> findRowsByTenantBefore(@Param("tenantId") Long tenantId,
+                                             @Param("status") Booking.BookingStatus status,
+                                             @Param("createdAt") LocalDateTime createdAt,
+                                             @Param("id") Long id,
+                                             Pageable pageable);
+    
     @Query("SELECT COUNT(b) FROM Booking b WHERE b.tenant = :tenant")
     long countByTenant(@Param("tenant") User tenant);
     
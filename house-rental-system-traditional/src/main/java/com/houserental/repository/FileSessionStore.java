@@ -0,0 +1,229 @@
+package com.houserental.repository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Sessions as one file per session in a local directory, the embedded
+ * stand-in for the database store. Several nodes on one host can share the
+ * directory. A file holds the creation time, timeout and encoded
+ * attributes; the last access time is the file's modification time, so a
+ * touch rewrites no content. Files are replaced atomically through a
+ * temporary file, so readers never see a partial write. Updates and
+ * deletes hold a lock on the directory's lock file, so an update cannot
+ * recreate a session another node has just deleted.
+ *
+ * <p>Whoever can write a session file can sign in as any user, so on POSIX
+ * file systems the directory is created readable by its owner only, and the
+ * store refuses to start on a directory another user owns or can write.
+ */
+public class FileSessionStore implements SessionStore {
+
+    private static final String SUFFIX = ".session";
+    private static final String LOCK_FILE = ".lock";
+    // Session ids come from cookies and must not be able to name other files
+    private static final Pattern SESSION_ID = Pattern.compile("^[A-Za-z0-9-]{1,64}$");
+
+    private final Path directory;
+    // File locks are held per process, so threads of this node also queue here
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public FileSessionStore(String directory) {
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+        boolean posix = Files.getFileAttributeView(this.directory.getRoot(), PosixFileAttributeView.class) != null;
+        try {
+            if (posix) {
+                Files.createDirectories(this.directory,
+                        PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+                verifyPrivate(this.directory);
+            } else {
+                Files.createDirectories(this.directory);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create session directory " + this.directory, e);
+        }
+    }
+
+    @Override
+    public Entry load(String id) {
+        if (!SESSION_ID.matcher(id).matches()) {
+            return null;
+        }
+        Path file = fileFor(id);
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            Instant creationTime = Instant.ofEpochMilli(in.readLong());
+            Duration maxInactiveInterval = Duration.ofSeconds(in.readInt());
+            byte[] attributes = in.readAllBytes();
+            Instant lastAccessedTime = Files.getLastModifiedTime(file).toInstant();
+            return new Entry(id, creationTime, lastAccessedTime, maxInactiveInterval, attributes);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read session " + id, e);
+        }
+    }
+
+    @Override
+    public void insert(Entry entry) {
+        write(entry);
+    }
+
+    @Override
+    public void update(String storedId, Entry entry) {
+        withWriteLock(() -> {
+            if (Files.notExists(fileFor(storedId))) {
+                // Signed out or purged meanwhile
+                return;
+            }
+            write(entry);
+            if (!storedId.equals(entry.id())) {
+                Files.deleteIfExists(fileFor(storedId));
+            }
+        }, "Cannot update session " + storedId);
+    }
+
+    @Override
+    public void delete(String id) {
+        if (!SESSION_ID.matcher(id).matches()) {
+            return;
+        }
+        withWriteLock(() -> Files.deleteIfExists(fileFor(id)), "Cannot delete session " + id);
+    }
+
+    @Override
+    public void touch(Map<String, Instant> lastAccessedTimes) {
+        for (Map.Entry<String, Instant> touched : lastAccessedTimes.entrySet()) {
+            Path file = fileFor(touched.getKey());
+            try {
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(touched.getValue())) {
+                    Files.setLastModifiedTime(file, FileTime.from(touched.getValue()));
+                }
+            } catch (NoSuchFileException ignored) {
+                // Signed out or purged meanwhile
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot touch session " + touched.getKey(), e);
+            }
+        }
+    }
+
+    @Override
+    public int deleteExpired(Instant now) {
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                try {
+                    Instant lastAccessedTime = Files.getLastModifiedTime(file).toInstant();
+                    if (lastAccessedTime.plus(readMaxInactiveInterval(file)).isBefore(now)) {
+                        Files.deleteIfExists(file);
+                        deleted++;
+                    }
+                } catch (NoSuchFileException ignored) {
+                    // Deleted concurrently
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot purge sessions in " + directory, e);
+        }
+        return deleted;
+    }
+
+    private void write(Entry entry) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(12 + entry.attributes().length);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(entry.creationTime().toEpochMilli());
+            out.writeInt((int) entry.maxInactiveInterval().toSeconds());
+            out.write(entry.attributes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Path target = fileFor(entry.id());
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(directory, entry.id(), ".tmp");
+            Files.write(temp, bytes.toByteArray());
+            Files.setLastModifiedTime(temp, FileTime.from(entry.lastAccessedTime()));
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write session " + entry.id(), e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // Best effort; a stray temporary file is never read as a session
+                }
+            }
+        }
+    }
+
+    private static void verifyPrivate(Path directory) throws IOException {
+        PosixFileAttributes attributes = Files.readAttributes(directory, PosixFileAttributes.class);
+        UserPrincipal self = directory.getFileSystem().getUserPrincipalLookupService()
+                .lookupPrincipalByName(System.getProperty("user.name"));
+        Set<PosixFilePermission> permissions = attributes.permissions();
+        if (!attributes.owner().equals(self)
+                || permissions.contains(PosixFilePermission.GROUP_WRITE)
+                || permissions.contains(PosixFilePermission.OTHERS_WRITE)) {
+            throw new IllegalStateException("Session directory " + directory + " must be owned by "
+                    + self.getName() + " and writable by no one else (chmod 700)");
+        }
+    }
+
+    private void withWriteLock(IOAction action, String failure) {
+        writeLock.lock();
+        try (FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE),
+                                                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+            action.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(failure, e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private interface IOAction {
+        void run() throws IOException;
+    }
+
+    private static Duration readMaxInactiveInterval(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            in.readLong();
+            return Duration.ofSeconds(in.readInt());
+        }
+    }
+
+    private Path fileFor(String id) {
+        return directory.resolve(id + SUFFIX);
+    }
+}
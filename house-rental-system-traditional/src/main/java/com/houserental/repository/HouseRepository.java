@@ -1,26 +1,44 @@
 package com.houserental.repository;
 
+import com.houserental.dto.HouseCard;
 import com.houserental.entity.House;
 import com.houserental.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface HouseRepository extends JpaRepository<House, Long> {
     
+    String CARD_SELECT = "SELECT new com.houserental.dto.HouseCard(h.id, h.title, h.address, h.city, h.state, h.zipCode, " +
+           "h.pricePerMonth, h.bedrooms, h.bathrooms, h.squareFeet, h.propertyType, h.availabilityStatus, " +
+           "h.ratingSum, h.ratingCount, " +
+           "(SELECT i FROM House hi JOIN hi.images i WHERE hi.id = h.id AND INDEX(i) = 0), SIZE(h.amenities), " +
+           "h.latitude, h.longitude, h.createdAt) " +
+           "FROM House h ";
+    
     Page<House> findByAvailabilityStatus(House.AvailabilityStatus status, Pageable pageable);
     
+    // Images are fetch-joined; amenities and other lazy state load in batches
+    @EntityGraph("House.withImages")
     List<House> findByOwner(User owner);
     
     Page<House> findByOwner(User owner, Pageable pageable);
     
+    // Amenities must be lower case; pass a placeholder list when amenityCount is 0
     @Query("SELECT h FROM House h WHERE " +
            "(:keyword IS NULL OR LOWER(h.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(h.description) LIKE LOWER(CONCAT('%', :keyword, '%'))) AND " +
            "(:city IS NULL OR LOWER(h.city) LIKE LOWER(CONCAT('%', :city, '%'))) AND " +
@@ -30,6 +48,9 @@ public interface HouseRepository extends JpaRepository<House, Long> {
            "(:bedrooms IS NULL OR h.bedrooms >= :bedrooms) AND " +
            "(:bathrooms IS NULL OR h.bathrooms >= :bathrooms) AND " +
            "(:propertyType IS NULL OR h.propertyType = :propertyType) AND " +
+           "(:featureMask = 0 OR BITAND(h.featureMask, CAST(:featureMask AS Integer)) = :featureMask) AND " +
+           "(:amenityCount = 0 OR (SELECT COUNT(DISTINCT LOWER(a)) FROM House ha JOIN ha.amenities a " +
+           "WHERE ha.id = h.id AND LOWER(a) IN :amenities) = :amenityCount) AND " +
            "h.availabilityStatus = 'AVAILABLE'")
     Page<House> searchHouses(@Param("keyword") String keyword,
                             @Param("city") String city,
@@ -39,12 +60,139 @@ public interface HouseRepository extends JpaRepository<House, Long> {
                             @Param("bedrooms") Integer bedrooms,
                             @Param("bathrooms") Integer bathrooms,
                             @Param("propertyType") House.PropertyType propertyType,
+                            @Param("featureMask") int featureMask,
+                            @Param("amenities") Collection<String> amenities,
+                            @Param("amenityCount") int amenityCount,
                             Pageable pageable);
     
+    @Query(CARD_SELECT + "WHERE " +
+           "(:keyword IS NULL OR LOWER(h.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(h.description) LIKE LOWER(CONCAT('%', :keyword, '%'))) AND " +
+           "(:city IS NULL OR LOWER(h.city) LIKE LOWER(CONCAT('%', :city, '%'))) AND " +
+           "(:state IS NULL OR LOWER(h.state) LIKE LOWER(CONCAT('%', :state, '%'))) AND " +
+           "(:minPrice IS NULL OR h.pricePerMonth >= :minPrice) AND " +
+           "(:maxPrice IS NULL OR h.pricePerMonth <= :maxPrice) AND " +
+           "(:bedrooms IS NULL OR h.bedrooms >= :bedrooms) AND " +
+           "(:bathrooms IS NULL OR h.bathrooms >= :bathrooms) AND " +
+           "(:propertyType IS NULL OR h.propertyType = :propertyType) AND " +
+           "(:featureMask = 0 OR BITAND(h.featureMask, CAST(:featureMask AS Integer)) = :featureMask) AND " +
+           "(:amenityCount = 0 OR (SELECT COUNT(DISTINCT LOWER(a)) FROM House ha JOIN ha.amenities a " +
+           "WHERE ha.id = h.id AND LOWER(a) IN :amenities) = :amenityCount) AND " +
+           "(:cursorId IS NULL OR h.createdAt < :cursorCreatedAt OR (h.createdAt = :cursorCreatedAt AND h.id < :cursorId)) AND " +
+           "h.availabilityStatus = 'AVAILABLE' " +
+           "ORDER BY h.createdAt DESC, h.id DESC")
+    Slice<HouseCard> searchCardsBefore(@Param("keyword") String keyword,
+                                       @Param("city") String city,
+                                       @Param("state") String state,
+                                       @Param("minPrice") BigDecimal minPrice,
+                                       @Param("maxPrice") BigDecimal maxPrice,
+                                       @Param("bedrooms") Integer bedrooms,
+                                       @Param("bathrooms") Integer bathrooms,
+                                       @Param("propertyType") House.PropertyType propertyType,
+                                       @Param("featureMask") int featureMask,
+                                       @Param("amenities") Collection<String> amenities,
+                                       @Param("amenityCount") int amenityCount,
+                                       @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                       @Param("cursorId") Long cursorId,
+                                       Pageable pageable);
+    
+    @Query(CARD_SELECT + "WHERE " +
+           "(:keyword IS NULL OR LOWER(h.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(h.description) LIKE LOWER(CONCAT('%', :keyword, '%'))) AND " +
+           "(:city IS NULL OR LOWER(h.city) LIKE LOWER(CONCAT('%', :city, '%'))) AND " +
+           "(:state IS NULL OR LOWER(h.state) LIKE LOWER(CONCAT('%', :state, '%'))) AND " +
+           "(:minPrice IS NULL OR h.pricePerMonth >= :minPrice) AND " +
+           "(:maxPrice IS NULL OR h.pricePerMonth <= :maxPrice) AND " +
+           "(:bedrooms IS NULL OR h.bedrooms >= :bedrooms) AND " +
+           "(:bathrooms IS NULL OR h.bathrooms >= :bathrooms) AND " +
+           "(:propertyType IS NULL OR h.propertyType = :propertyType) AND " +
+           "(:featureMask = 0 OR BITAND(h.featureMask, CAST(:featureMask AS Integer)) = :featureMask) AND " +
+           "(:amenityCount = 0 OR (SELECT COUNT(DISTINCT LOWER(a)) FROM House ha JOIN ha.amenities a " +
+           "WHERE ha.id = h.id AND LOWER(a) IN :amenities) = :amenityCount) AND " +
+           "h.latitude BETWEEN :minLatitude AND :maxLatitude AND " +
+           "h.longitude BETWEEN :minLongitude AND :maxLongitude AND " +
+           "h.availabilityStatus = 'AVAILABLE'")
+    List<HouseCard> searchCardsWithin(@Param("keyword") String keyword,
+                                      @Param("city") String city,
+                                      @Param("state") String state,
+                                      @Param("minPrice") BigDecimal minPrice,
+                                      @Param("maxPrice") BigDecimal maxPrice,
+                                      @Param("bedrooms") Integer bedrooms,
+                                      @Param("bathrooms") Integer bathrooms,
+                                      @Param("propertyType") House.PropertyType propertyType,
+                                      @Param("featureMask") int featureMask,
+                                      @Param("amenities") Collection<String> amenities,
+                                      @Param("amenityCount") int amenityCount,
+                                      @Param("minLatitude") double minLatitude,
+                                      @Param("maxLatitude") double maxLatitude,
+                                      @Param("minLongitude") double minLongitude,
+                                      @Param("maxLongitude") double maxLongitude);
+    
     @Query("SELECT h FROM House h WHERE h.availabilityStatus = 'AVAILABLE' ORDER BY h.createdAt DESC")
     Page<House> findAvailableHouses(Pageable pageable);
     
+    @Query(CARD_SELECT + "WHERE h.availabilityStatus = 'AVAILABLE' ORDER BY h.createdAt DESC, h.id DESC")
+    Slice<HouseCard> findFirstAvailableCards(Pageable pageable);
+    
+    @Query(CARD_SELECT + "WHERE h.availabilityStatus = 'AVAILABLE' AND " +
+           "(h.createdAt < :createdAt OR (h.createdAt = :createdAt AND h.id < :id)) " +
+           "ORDER BY h.createdAt DESC, h.id DESC")
+    Slice<HouseCard> findAvailableCardsBefore(@Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") Long id,
+                                              Pageable pageable);
+    
+    @Query(CARD_SELECT + "WHERE h.id IN :ids")
+    List<HouseCard> findCardsByIdIn(@Param("ids") Collection<Long> ids);
+    
     @Query("SELECT COUNT(h) FROM House h WHERE h.owner = :owner")
     long countByOwner(@Param("owner") User owner);
+    
+    Slice<House> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
+    List<House> findByOwnerIdAndIdGreaterThanOrderByIdAsc(Long ownerId, Long id, Pageable pageable);
+    
+    @EntityGraph("House.withImages")
+    List<House> findByIdIn(Collection<Long> ids);
+    
+    @Query("SELECT h.owner.id FROM House h WHERE h.id = :id")
+    Optional<Long> findOwnerIdById(@Param("id") Long id);
+    
+    @Query("SELECT h.createdAt FROM House h WHERE h.id = :id")
+    Optional<LocalDateTime> findCreatedAtById(@Param("id") Long id);
+    
+    @Query("SELECT COALESCE(MAX(h.id), 0) FROM House h")
+    long findMaxId();
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE House h SET h.ratingSum = h.ratingSum + :rating * :delta, " +
+           "h.ratingCount = h.ratingCount + :delta, " +
+           "h.oneStarCount = h.oneStarCount + CASE WHEN :rating = 1 THEN :delta ELSE 0 END, " +
+           "h.twoStarCount = h.twoStarCount + CASE WHEN :rating = 2 THEN :delta ELSE 0 END, " +
+           "h.threeStarCount = h.threeStarCount + CASE WHEN :rating = 3 THEN :delta ELSE 0 END, " +
+           "h.fourStarCount = h.fourStarCount + CASE WHEN :rating = 4 THEN :delta ELSE 0 END, " +
+           "h.fiveStarCount = h.fiveStarCount + CASE WHEN :rating = 5 THEN :delta ELSE 0 END " +
+           "WHERE h.id = :houseId")
+    int adjustRatingAggregates(@Param("houseId") Long houseId,
+                               @Param("rating") int rating,
+                               @Param("delta") int delta);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE House h SET " +
+           "h.ratingSum = COALESCE((SELECT SUM(r.rating) FROM Review r WHERE r.house = h), 0), " +
+           "h.ratingCount = (SELECT COUNT(r) FROM Review r WHERE r.house = h), " +
+           "h.oneStarCount = (SELECT COUNT(r) FROM Review r WHERE r.house = h AND r.rating = 1), " +
+           "h.twoStarCount = (SELECT COUNT(r) FROM Review r WHERE r.house = h AND r.rating = 2), " +
+           "h.threeStarCount = (SELECT COUNT(r) FROM Review r WHERE r.house = h AND r.rating = 3), " +
+           "h.fourStarCount = (SELECT COUNT(r) FROM Review r WHERE r.house = h AND r.rating = 4), " +
+           "h.fiveStarCount = (SELECT COUNT(r) FROM Review r WHERE r.house = h AND r.rating = 5) " +
+           "WHERE h.id BETWEEN :fromId AND :toId AND (" +
+           "h.ratingCount <> (SELECT COUNT(r) FROM Review r WHERE r.house = h) OR " +
+           "h.ratingSum <> COALESCE((SELECT SUM(r.rating) FROM Review r WHERE r.house = h), 0) OR " +
+           "h.oneStarCount <> (SELECT COUNT(r) FROM Review r WHERE r.house = h AND r.rating = 1) OR " +
+           "h.twoStarCount <> (SELECT COUNT(r) FROM Review r WHERE r.house = h AND r.rating = 2) OR " +
+           "h.threeStarCount <> (SELECT COUNT(r) FROM Review r WHERE r.house = h AND r.rating = 3) OR " +
+           "h.fourStarCount <> (SELECT COUNT(r) FROM Review r WHERE r.house = h AND r.rating = 4) OR " +
+           "h.fiveStarCount <> (SELECT COUNT(r) FROM Review r WHERE r.house = h AND r.rating = 5))")
+    int reconcileRatingAggregates(@Param("fromId") Long fromId, @Param("toId") Long toId);
 }
 
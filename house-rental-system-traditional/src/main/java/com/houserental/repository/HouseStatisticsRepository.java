@@ -0,0 +1,38 @@
+package com.houserental.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Row count estimates taken from PostgreSQL planner statistics, for showing
+ * approximate result totals without running COUNT(*).
+ */
+@Repository
+public class HouseStatisticsRepository {
+
+    private static final String ESTIMATE_AVAILABLE =
+            "SELECT c.reltuples * COALESCE(" +
+            "s.most_common_freqs[array_position(s.most_common_vals::text::text[], 'AVAILABLE')], 1) " +
+            "FROM pg_class c " +
+            "LEFT JOIN pg_stats s ON s.tablename = c.relname AND s.attname = 'availability_status' " +
+            "WHERE c.relname = 'houses'";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Returns the estimated number of available houses, or null when no
+     * statistics are available.
+     */
+    public Long estimateAvailableHouses() {
+        try {
+            Double estimate = jdbcTemplate.query(ESTIMATE_AVAILABLE,
+                    rs -> rs.next() ? rs.getDouble(1) : null);
+            return estimate == null || estimate < 0 ? null : Math.round(estimate);
+        } catch (DataAccessException e) {
+            return null;
+        }
+    }
+}
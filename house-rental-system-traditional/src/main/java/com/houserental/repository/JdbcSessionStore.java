@@ -0,0 +1,85 @@
+package com.houserental.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sessions in the http_sessions table, so any node behind the balancer can
+ * serve any request. Each session is one row read by primary key.
+ */
+public class JdbcSessionStore implements SessionStore {
+
+    private static final String SELECT =
+            "SELECT creation_time, last_accessed_time, max_inactive_seconds, attributes " +
+            "FROM http_sessions WHERE id = ?";
+    private static final String INSERT =
+            "INSERT INTO http_sessions (id, creation_time, last_accessed_time, max_inactive_seconds, " +
+            "expiry_time, attributes) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE =
+            "UPDATE http_sessions SET id = ?, last_accessed_time = ?, max_inactive_seconds = ?, " +
+            "expiry_time = ?, attributes = ? WHERE id = ?";
+    private static final String TOUCH =
+            "UPDATE http_sessions SET last_accessed_time = ?, " +
+            "expiry_time = CAST(? AS BIGINT) + max_inactive_seconds * 1000 " +
+            "WHERE id = ? AND last_accessed_time < ?";
+    private static final String DELETE = "DELETE FROM http_sessions WHERE id = ?";
+    private static final String DELETE_EXPIRED = "DELETE FROM http_sessions WHERE expiry_time < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcSessionStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Entry load(String id) {
+        return jdbcTemplate.query(SELECT, rs -> rs.next()
+                ? new Entry(id, Instant.ofEpochMilli(rs.getLong(1)), Instant.ofEpochMilli(rs.getLong(2)),
+                            Duration.ofSeconds(rs.getInt(3)), rs.getBytes(4))
+                : null, id);
+    }
+
+    @Override
+    public void insert(Entry entry) {
+        jdbcTemplate.update(INSERT, entry.id(), entry.creationTime().toEpochMilli(),
+                            entry.lastAccessedTime().toEpochMilli(), (int) entry.maxInactiveInterval().toSeconds(),
+                            expiryTime(entry), entry.attributes());
+    }
+
+    @Override
+    public void update(String storedId, Entry entry) {
+        // No row matches once the session was purged or signed out elsewhere, and the write is dropped
+        jdbcTemplate.update(UPDATE, entry.id(), entry.lastAccessedTime().toEpochMilli(),
+                            (int) entry.maxInactiveInterval().toSeconds(), expiryTime(entry),
+                            entry.attributes(), storedId);
+    }
+
+    @Override
+    public void delete(String id) {
+        jdbcTemplate.update(DELETE, id);
+    }
+
+    @Override
+    public void touch(Map<String, Instant> lastAccessedTimes) {
+        List<Object[]> batch = new ArrayList<>(lastAccessedTimes.size());
+        for (Map.Entry<String, Instant> touched : lastAccessedTimes.entrySet()) {
+            long lastAccessed = touched.getValue().toEpochMilli();
+            batch.add(new Object[] {lastAccessed, lastAccessed, touched.getKey(), lastAccessed});
+        }
+        jdbcTemplate.batchUpdate(TOUCH, batch);
+    }
+
+    @Override
+    public int deleteExpired(Instant now) {
+        return jdbcTemplate.update(DELETE_EXPIRED, now.toEpochMilli());
+    }
+
+    private static long expiryTime(Entry entry) {
+        return entry.lastAccessedTime().plus(entry.maxInactiveInterval()).toEpochMilli();
+    }
+}
@@ -0,0 +1,41 @@
+package com.houserental.repository;
+
+import com.houserental.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /** Ids of undelivered events, oldest first; served by the partial pending index. */
+    @Query("SELECT e.id FROM OutboxEvent e WHERE e.processedAt IS NULL AND e.failedAt IS NULL ORDER BY e.id")
+    List<Long> findPendingIds(Pageable pageable);
+
+    List<OutboxEvent> findByIdInOrderById(Collection<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEvent e SET e.processedAt = :now WHERE e.id IN :ids")
+    int markProcessed(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEvent e SET e.failedAt = :now, e.attempts = :attempts, e.lastError = :error " +
+           "WHERE e.id = :id")
+    int markFailed(@Param("id") Long id, @Param("attempts") int attempts, @Param("error") String error,
+                   @Param("now") Instant now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OutboxEvent e WHERE e.processedAt < :before")
+    int deleteProcessedBefore(@Param("before") Instant before);
+}
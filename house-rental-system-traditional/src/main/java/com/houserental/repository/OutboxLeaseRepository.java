@@ -0,0 +1,28 @@
+package com.houserental.repository;
+
+import com.houserental.entity.OutboxLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface OutboxLeaseRepository extends JpaRepository<OutboxLease, String> {
+
+    /** Takes or renews the lease; returns 0 while another owner holds it. */
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxLease l SET l.owner = :owner, l.expiresAt = :expiresAt " +
+           "WHERE l.name = :name AND (l.owner = :owner OR l.expiresAt < :now)")
+    int acquire(@Param("name") String name, @Param("owner") String owner,
+                @Param("expiresAt") Instant expiresAt, @Param("now") Instant now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxLease l SET l.expiresAt = :now WHERE l.name = :name AND l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") Instant now);
+}
@@ -3,8 +3,10 @@ package com.houserental.repository;
 import com.houserental.entity.House;
 import com.houserental.entity.Review;
 import com.houserental.entity.User;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -27,5 +29,10 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     long countByHouse(@Param("house") House house);
     
     boolean existsByHouseAndReviewer(House house, User reviewer);
+    
+    // Reads the stored rating without flushing pending changes to the same review
+    @QueryHints(@QueryHint(name = "org.hibernate.flushMode", value = "COMMIT"))
+    @Query("SELECT r.rating FROM Review r WHERE r.id = :id")
+    Optional<Integer> findRatingById(@Param("id") Long id);
 }
 
@@ -0,0 +1,41 @@
+package com.houserental.repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Storage for web sessions shared by all nodes. Attributes arrive already
+ * encoded; a store only keeps the bytes together with the timestamps that
+ * decide expiry.
+ */
+public interface SessionStore {
+
+    /** A stored session; {@code attributes} is the encoded attribute map. */
+    record Entry(String id, Instant creationTime, Instant lastAccessedTime,
+                 Duration maxInactiveInterval, byte[] attributes) {}
+
+    /** Returns the session with the given id, or null when there is none. */
+    Entry load(String id);
+
+    void insert(Entry entry);
+
+    /**
+     * Replaces the session stored as {@code storedId}, which differs from
+     * {@code entry.id()} after the id was changed on login. Does nothing when
+     * that session is gone, so a request racing a sign-out or purge on
+     * another node cannot bring it back.
+     */
+    void update(String storedId, Entry entry);
+
+    void delete(String id);
+
+    /**
+     * Moves the last access time of each session forward; sessions that are
+     * gone or were accessed later elsewhere are left alone.
+     */
+    void touch(Map<String, Instant> lastAccessedTimes);
+
+    /** Deletes sessions expired at {@code now} and returns how many. */
+    int deleteExpired(Instant now);
+}
@@ -1,9 +1,15 @@
 package com.houserental.repository;
 
 import com.houserental.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,5 +22,17 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
     
     boolean existsByEmail(String email);
+    
+    @Query("SELECT COALESCE(MAX(u.id), 0) FROM User u")
+    long findMaxId();
+
+    /** Rows of (id, username, email) after the given id, in id order. */
+    @Query("SELECT u.id, u.username, u.email FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Object[]> findAccountNamesAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :password, u.updatedAt = CURRENT_TIMESTAMP WHERE u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String encodedPassword);
 }
 
@@ -0,0 +1,73 @@
+package com.houserental.repository;
+
+import com.houserental.entity.UserStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+@Repository
+public interface UserStatsRepository extends JpaRepository<UserStats, Long> {
+
+    // Actual values for the stats row s, computed from the houses and bookings tables
+    String ACTUAL_HOUSES = "(SELECT COUNT(h) FROM House h WHERE h.owner.id = s.userId)";
+    String ACTUAL_TENANT_BOOKINGS = "(SELECT COUNT(b) FROM Booking b WHERE b.tenant.id = s.userId)";
+    String ACTUAL_PENDING = "(SELECT COUNT(b) FROM Booking b WHERE b.house.owner.id = s.userId AND b.status = 'PENDING')";
+    String ACTUAL_APPROVED = "(SELECT COUNT(b) FROM Booking b WHERE b.house.owner.id = s.userId AND b.status = 'APPROVED')";
+    String ACTUAL_ACTIVE = "(SELECT COUNT(b) FROM Booking b WHERE b.house.owner.id = s.userId AND b.status = 'ACTIVE')";
+    String ACTUAL_REVENUE = "COALESCE((SELECT SUM(b.totalAmount) FROM Booking b WHERE b.house.owner.id = s.userId " +
+                            "AND b.status IN ('APPROVED', 'ACTIVE', 'COMPLETED')), 0)";
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserStats s SET s.houseCount = s.houseCount + :houses, " +
+           "s.tenantBookingCount = s.tenantBookingCount + :tenantBookings, " +
+           "s.pendingBookingCount = s.pendingBookingCount + :pending, " +
+           "s.approvedBookingCount = s.approvedBookingCount + :approved, " +
+           "s.activeBookingCount = s.activeBookingCount + :active, " +
+           "s.revenue = s.revenue + :revenue, " +
+           "s.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE s.userId = :userId")
+    int adjust(@Param("userId") Long userId,
+               @Param("houses") long houses,
+               @Param("tenantBookings") long tenantBookings,
+               @Param("pending") long pending,
+               @Param("approved") long approved,
+               @Param("active") long active,
+               @Param("revenue") BigDecimal revenue);
+
+    /**
+     * Creates zeroed rows for users in the id range that have none; the
+     * following {@link #reconcile} fills in their values.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO user_stats (user_id) SELECT u.id FROM users u " +
+                   "WHERE u.id BETWEEN :fromId AND :toId " +
+                   "AND NOT EXISTS (SELECT 1 FROM user_stats s WHERE s.user_id = u.id)",
+           nativeQuery = true)
+    int insertMissing(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserStats s SET " +
+           "s.houseCount = " + ACTUAL_HOUSES + ", " +
+           "s.tenantBookingCount = " + ACTUAL_TENANT_BOOKINGS + ", " +
+           "s.pendingBookingCount = " + ACTUAL_PENDING + ", " +
+           "s.approvedBookingCount = " + ACTUAL_APPROVED + ", " +
+           "s.activeBookingCount = " + ACTUAL_ACTIVE + ", " +
+           "s.revenue = " + ACTUAL_REVENUE + ", " +
+           "s.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE s.userId BETWEEN :fromId AND :toId AND (" +
+           "s.houseCount <> " + ACTUAL_HOUSES + " OR " +
+           "s.tenantBookingCount <> " + ACTUAL_TENANT_BOOKINGS + " OR " +
+           "s.pendingBookingCount <> " + ACTUAL_PENDING + " OR " +
+           "s.approvedBookingCount <> " + ACTUAL_APPROVED + " OR " +
+           "s.activeBookingCount <> " + ACTUAL_ACTIVE + " OR " +
+           "s.revenue <> " + ACTUAL_REVENUE + ")")
+    int reconcile(@Param("fromId") Long fromId, @Param("toId") Long toId);
+}
@@ -0,0 +1,103 @@
+package com.houserental.service;
+
+import com.houserental.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Bloom filter of every taken username and email, so the live availability
+ * check on the registration form can answer "free" for names nobody has
+ * without querying the users table. Registrations on this instance are added
+ * as they happen; the filter is rebuilt from the table on startup and on
+ * {@code app.registration.name-filter.rebuild-cron} to pick up accounts
+ * created elsewhere and to resize as the table grows. Until the first build
+ * finishes, {@link #isReady()} is false and callers should ask the database.
+ */
+@Component
+public class AccountNameIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountNameIndex.class);
+
+    private static final int BUILD_BATCH_SIZE = 5000;
+    private static final String USERNAME = "u:";
+    private static final String EMAIL = "e:";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.registration.name-filter.expected-names:1000000}")
+    private long expectedNames;
+
+    @Value("${app.registration.name-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter building;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        Thread builder = new Thread(this::rebuild, "account-name-index-builder");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    @Scheduled(cron = "${app.registration.name-filter.rebuild-cron:0 15 4 * * *}")
+    public synchronized void rebuild() {
+        // Two names per user, with room for the table to double before the next rebuild
+        BloomFilter next = new BloomFilter(Math.max(expectedNames, 4 * userRepository.count()), falsePositiveRate);
+        building = next;
+        try {
+            long lastId = 0L;
+            List<Object[]> batch;
+            do {
+                batch = userRepository.findAccountNamesAfter(lastId, PageRequest.of(0, BUILD_BATCH_SIZE));
+                for (Object[] row : batch) {
+                    lastId = (Long) row[0];
+                    next.add(USERNAME + row[1]);
+                    next.add(EMAIL + row[2]);
+                }
+            } while (batch.size() == BUILD_BATCH_SIZE);
+            filter = next;
+            logger.info("Account name filter built ({} KB)", next.sizeInBytes() / 1024);
+        } catch (RuntimeException e) {
+            logger.error("Failed to build account name filter, availability checks will use the database", e);
+        } finally {
+            building = null;
+        }
+    }
+
+    public boolean isReady() {
+        return filter != null;
+    }
+
+    /** Records a username and email as taken. */
+    public void add(String username, String email) {
+        for (BloomFilter target : new BloomFilter[] {filter, building}) {
+            if (target != null) {
+                target.add(USERNAME + username);
+                target.add(EMAIL + email);
+            }
+        }
+    }
+
+    /** False means the username is certainly free; true means it is probably taken. */
+    public boolean mightContainUsername(String username) {
+        BloomFilter current = filter;
+        return current == null || current.mightContain(USERNAME + username);
+    }
+
+    /** False means the email is certainly free; true means it is probably taken. */
+    public boolean mightContainEmail(String email) {
+        BloomFilter current = filter;
+        return current == null || current.mightContain(EMAIL + email);
+    }
+}
@@ -0,0 +1,98 @@
+package com.houserental.service;
+
+import com.houserental.entity.House;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Filterable house attributes stored column-wise in arrays indexed by document
+ * id, so search filters and facet counting read primitives instead of
+ * following a map entry per house. Boolean features are packed into one
+ * bitmask per house. Missing numbers are stored as -1, missing coordinates as NaN.
+ * Creation times are kept in microseconds, the precision of the database column.
+ */
+final class AttributeColumns {
+
+    static final byte UNKNOWN = -1;
+
+    private long[] priceCents = new long[0];
+    private byte[] bedrooms = new byte[0];
+    private byte[] bathrooms = new byte[0];
+    private byte[] propertyTypes = new byte[0];
+    private int[] featureMasks = new int[0];
+    private double[] latitudes = new double[0];
+    private double[] longitudes = new double[0];
+    private long[] createdAtMicros = new long[0];
+
+    void set(int docId, House house) {
+        ensureCapacity(docId + 1);
+        priceCents[docId] = house.getPricePerMonth() == null ? 0L : toCents(house.getPricePerMonth(), RoundingMode.HALF_UP);
+        bedrooms[docId] = smallCount(house.getBedrooms());
+        bathrooms[docId] = smallCount(house.getBathrooms());
+        propertyTypes[docId] = house.getPropertyType() == null ? UNKNOWN : (byte) house.getPropertyType().ordinal();
+        featureMasks[docId] = house.getFeatureMask();
+        boolean located = house.getLatitude() != null && house.getLongitude() != null;
+        latitudes[docId] = located ? house.getLatitude() : Double.NaN;
+        longitudes[docId] = located ? house.getLongitude() : Double.NaN;
+        createdAtMicros[docId] = house.getCreatedAt() == null ? Long.MIN_VALUE : toMicros(house.getCreatedAt());
+    }
+
+    void clear() {
+        priceCents = new long[0];
+        bedrooms = new byte[0];
+        bathrooms = new byte[0];
+        propertyTypes = new byte[0];
+        featureMasks = new int[0];
+        latitudes = new double[0];
+        longitudes = new double[0];
+        createdAtMicros = new long[0];
+    }
+
+    long priceCents(int docId) { return priceCents[docId]; }
+
+    int bedrooms(int docId) { return bedrooms[docId]; }
+
+    int bathrooms(int docId) { return bathrooms[docId]; }
+
+    int propertyType(int docId) { return propertyTypes[docId]; }
+
+    int featureMask(int docId) { return featureMasks[docId]; }
+
+    double latitude(int docId) { return latitudes[docId]; }
+
+    double longitude(int docId) { return longitudes[docId]; }
+
+    long createdAtMicros(int docId) { return createdAtMicros[docId]; }
+
+    static long toCents(BigDecimal amount, RoundingMode roundingMode) {
+        return amount.movePointRight(2).setScale(0, roundingMode).longValue();
+    }
+
+    static long toMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + dateTime.getNano() / 1_000;
+    }
+
+    // Room counts are validated to 0..20, so a byte is enough
+    private static byte smallCount(Integer value) {
+        return value == null ? UNKNOWN : (byte) Math.max(0, Math.min(Byte.MAX_VALUE, value));
+    }
+
+    private void ensureCapacity(int size) {
+        if (size <= priceCents.length) {
+            return;
+        }
+        int capacity = Math.max(size, priceCents.length + (priceCents.length >> 1) + 16);
+        priceCents = Arrays.copyOf(priceCents, capacity);
+        bedrooms = Arrays.copyOf(bedrooms, capacity);
+        bathrooms = Arrays.copyOf(bathrooms, capacity);
+        propertyTypes = Arrays.copyOf(propertyTypes, capacity);
+        featureMasks = Arrays.copyOf(featureMasks, capacity);
+        latitudes = Arrays.copyOf(latitudes, capacity);
+        longitudes = Arrays.copyOf(longitudes, capacity);
+        createdAtMicros = Arrays.copyOf(createdAtMicros, capacity);
+    }
+}
@@ -0,0 +1,66 @@
+package com.houserental.service;
+
+import com.houserental.entity.User;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Security principal carrying the fields controllers and views need, so an
+ * authenticated request does not have to reload the {@link User} entity.
+ */
+public class AuthenticatedUser extends org.springframework.security.core.userdetails.User {
+
+    private final Long id;
+    private final User.Role role;
+    private final String email;
+    private final String firstName;
+    private final String lastName;
+    private final LocalDateTime createdAt;
+
+    public AuthenticatedUser(User user, Collection<? extends GrantedAuthority> authorities) {
+        super(user.getUsername(), user.getPassword(), authorities);
+        this.id = user.getId();
+        this.role = user.getRole();
+        this.email = user.getEmail();
+        this.firstName = user.getFirstName();
+        this.lastName = user.getLastName();
+        this.createdAt = user.getCreatedAt();
+    }
+
+    private AuthenticatedUser(AuthenticatedUser source, String password) {
+        super(source.getUsername(), password, source.getAuthorities());
+        this.id = source.id;
+        this.role = source.role;
+        this.email = source.email;
+        this.firstName = source.firstName;
+        this.lastName = source.lastName;
+        this.createdAt = source.createdAt;
+    }
+
+    /** Copy of this principal carrying a newly encoded password hash. */
+    public AuthenticatedUser withPassword(String encodedPassword) {
+        return new AuthenticatedUser(this, encodedPassword);
+    }
+
+    public Long getId() { return id; }
+
+    public User.Role getRole() { return role; }
+
+    public String getEmail() { return email; }
+
+    public String getFirstName() { return firstName; }
+
+    public String getLastName() { return lastName; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public String getFullName() {
+        return firstName + " " + lastName;
+    }
+
+    public boolean isLandlord() {
+        return role == User.Role.LANDLORD;
+    }
+}
@@ -0,0 +1,176 @@
+package com.houserental.service;
+
+import com.houserental.entity.Booking;
+import com.houserental.entity.House;
+import com.houserental.repository.BookingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per-house calendar of APPROVED and ACTIVE booking ranges. Each calendar is
+ * loaded lazily on first use and answers overlap checks with a binary search
+ * over ranges sorted by start date plus a running maximum of end dates.
+ * Callers hold the house's {@link HouseLockStripes} lock around checks and
+ * updates, so a calendar is never loaded while a write to it is in flight.
+ */
+@Component
+public class BookingAvailabilityIndex {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private final ConcurrentMap<Long, HouseCalendar> calendars = new ConcurrentHashMap<>();
+
+    public boolean hasConflict(House house, LocalDate startDate, LocalDate endDate) {
+        return hasConflict(house, startDate, endDate, null);
+    }
+
+    /**
+     * Checks for an overlapping blocking booking, ignoring {@code excludedBookingId}
+     * so a booking being approved does not conflict with itself.
+     */
+    public boolean hasConflict(House house, LocalDate startDate, LocalDate endDate, Long excludedBookingId) {
+        // Loaded outside the map so the query does not hold a map bin lock
+        HouseCalendar calendar = calendars.get(house.getId());
+        if (calendar == null) {
+            HouseCalendar loaded = load(house);
+            calendar = calendars.putIfAbsent(house.getId(), loaded);
+            if (calendar == null) {
+                calendar = loaded;
+            }
+        }
+        return calendar.overlaps(startDate.toEpochDay(), endDate.toEpochDay(), excludedBookingId);
+    }
+
+    public void update(Booking booking) {
+        Long houseId = booking.getHouse().getId();
+        if (isBlocking(booking.getStatus())) {
+            calendars.computeIfPresent(houseId, (id, calendar) -> calendar.with(booking));
+        } else {
+            calendars.computeIfPresent(houseId, (id, calendar) -> calendar.without(booking.getId()));
+        }
+    }
+
+    public void remove(Booking booking) {
+        calendars.computeIfPresent(booking.getHouse().getId(), (id, calendar) -> calendar.without(booking.getId()));
+    }
+
+    public void evict(Long houseId) {
+        calendars.remove(houseId);
+    }
+
+    private HouseCalendar load(House house) {
+        List<Booking> blocking = bookingRepository.findByHouse(house).stream()
+                .filter(booking -> isBlocking(booking.getStatus()))
+                .toList();
+        return HouseCalendar.of(blocking.toArray(new Booking[0]));
+    }
+
+    static boolean isBlocking(Booking.BookingStatus status) {
+        return status == Booking.BookingStatus.APPROVED || status == Booking.BookingStatus.ACTIVE;
+    }
+
+    private static final class HouseCalendar {
+        private final long[] bookingIds;
+        private final long[] starts;
+        private final long[] ends;
+        private final long[] maxEnds;
+
+        private HouseCalendar(long[] bookingIds, long[] starts, long[] ends) {
+            this.bookingIds = bookingIds;
+            this.starts = starts;
+            this.ends = ends;
+            this.maxEnds = new long[ends.length];
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < ends.length; i++) {
+                max = Math.max(max, ends[i]);
+                maxEnds[i] = max;
+            }
+        }
+
+        private static HouseCalendar of(Booking[] bookings) {
+            Arrays.sort(bookings, Comparator.comparing(Booking::getStartDate));
+            long[] ids = new long[bookings.length];
+            long[] starts = new long[bookings.length];
+            long[] ends = new long[bookings.length];
+            for (int i = 0; i < bookings.length; i++) {
+                ids[i] = bookings[i].getId();
+                starts[i] = bookings[i].getStartDate().toEpochDay();
+                ends[i] = bookings[i].getEndDate().toEpochDay();
+            }
+            return new HouseCalendar(ids, starts, ends);
+        }
+
+        private boolean overlaps(long start, long end, Long excludedBookingId) {
+            // Last range starting on or before the requested end date
+            int low = 0;
+            int high = starts.length - 1;
+            int last = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] <= end) {
+                    last = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            if (last < 0 || maxEnds[last] < start) {
+                return false;
+            }
+            if (excludedBookingId == null) {
+                return true;
+            }
+            for (int i = last; i >= 0 && maxEnds[i] >= start; i--) {
+                if (ends[i] >= start && bookingIds[i] != excludedBookingId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private HouseCalendar with(Booking booking) {
+            HouseCalendar base = without(booking.getId());
+            long start = booking.getStartDate().toEpochDay();
+            int pos = 0;
+            while (pos < base.starts.length && base.starts[pos] <= start) {
+                pos++;
+            }
+            return new HouseCalendar(
+                    insert(base.bookingIds, pos, booking.getId()),
+                    insert(base.starts, pos, start),
+                    insert(base.ends, pos, booking.getEndDate().toEpochDay()));
+        }
+
+        private HouseCalendar without(Long bookingId) {
+            for (int i = 0; i < bookingIds.length; i++) {
+                if (bookingIds[i] == bookingId) {
+                    return new HouseCalendar(delete(bookingIds, i), delete(starts, i), delete(ends, i));
+                }
+            }
+            return this;
+        }
+
+        private static long[] insert(long[] values, int index, long value) {
+            long[] copy = new long[values.length + 1];
+            System.arraycopy(values, 0, copy, 0, index);
+            copy[index] = value;
+            System.arraycopy(values, index, copy, index + 1, values.length - index);
+            return copy;
+        }
+
+        private static long[] delete(long[] values, int index) {
+            long[] copy = new long[values.length - 1];
+            System.arraycopy(values, 0, copy, 0, index);
+            System.arraycopy(values, index + 1, copy, index, values.length - index - 1);
+            return copy;
+        }
+    }
+}
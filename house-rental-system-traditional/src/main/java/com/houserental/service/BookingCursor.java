@@ -0,0 +1,57 @@
+package com.houserental.service;
+
+import com.houserental.dto.BookingRow;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a newest-first booking list, identified by the (createdAt, id)
+ * of the last booking on the previous page. Encoded as an opaque URL-safe token.
+ */
+public final class BookingCursor {
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    private BookingCursor(LocalDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static BookingCursor after(BookingRow row) {
+        return new BookingCursor(row.getCreatedAt(), row.getId());
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}, returning null for a
+     * missing or malformed token so the list starts from the first page.
+     */
+    public static BookingCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf('|');
+            if (separator < 0) {
+                return null;
+            }
+            return new BookingCursor(LocalDateTime.parse(value.substring(0, separator)),
+                                     Long.valueOf(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    public String encode() {
+        String value = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public Long getId() { return id; }
+}
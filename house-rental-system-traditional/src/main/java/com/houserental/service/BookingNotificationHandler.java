@@ -0,0 +1,45 @@
+package com.houserental.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.houserental.entity.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tells the other party about booking changes: the landlord about new
+ * requests and cancellations, the tenant about decisions. There is no mail
+ * transport yet, so notifications are written to the {@code notifications}
+ * log, keyed by the recipient's user id.
+ */
+@Component
+public class BookingNotificationHandler implements DomainEventHandler {
+
+    private static final Logger notifications = LoggerFactory.getLogger("notifications");
+
+    @Override
+    public void handle(OutboxEvent event, JsonNode payload) {
+        long bookingId = payload.path("bookingId").asLong();
+        switch (event.getEventType()) {
+            case BOOKING_REQUESTED:
+                notify(payload.path("ownerId").asLong(), "New booking request #" + bookingId + " for "
+                        + payload.path("startDate").asText() + " to " + payload.path("endDate").asText());
+                break;
+            case BOOKING_APPROVED:
+                notify(payload.path("tenantId").asLong(), "Your booking #" + bookingId + " was approved");
+                break;
+            case BOOKING_REJECTED:
+                notify(payload.path("tenantId").asLong(), "Your booking #" + bookingId + " was rejected");
+                break;
+            case BOOKING_CANCELLED:
+                notify(payload.path("ownerId").asLong(), "Booking #" + bookingId + " was cancelled");
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static void notify(long userId, String message) {
+        notifications.info("user={} {}", userId, message);
+    }
+}
@@ -1,32 +1,92 @@
 package com.houserental.service;
 
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.houserental.dto.BookingRow;
 import com.houserental.entity.Booking;
 import com.houserental.entity.House;
 import com.houserental.entity.User;
 import com.houserental.repository.BookingRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
 
 @Service
 public class BookingService {
 
+    private static final String OVERLAP_CONSTRAINT = "bookings_no_overlap";
+
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private BookingAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private HouseLockStripes houseLocks;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private EventOutbox eventOutbox;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.booking.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.booking.retry-backoff-ms:25}")
+    private long retryBackoffMs;
+
+    @Value("${app.booking.export-chunk-size:500}")
+    private int exportChunkSize;
+
     public Booking saveBooking(Booking booking) {
-        // Check for conflicting bookings
-        List<Booking> conflicts = bookingRepository.findConflictingBookings(
-                booking.getHouse(), booking.getStartDate(), booking.getEndDate());
-        
-        if (!conflicts.isEmpty()) {
-            throw new RuntimeException("Property is not available for the selected dates");
-        }
-        
-        return bookingRepository.save(booking);
+        return admit(booking.getHouse().getId(), () -> {
+            // Check for conflicting bookings
+            if (availabilityIndex.hasConflict(booking.getHouse(), booking.getStartDate(), booking.getEndDate())) {
+                throw new RuntimeException("Property is not available for the selected dates");
+            }
+            Booking saved = bookingRepository.save(booking);
+            userStatsService.recordBookingTransition(saved, null, saved.getStatus());
+            eventOutbox.bookingChanged(saved, null);
+            return saved;
+        });
+    }
+
+    // Monthly price prorated over 30-day months
+    public BigDecimal calculateTotalAmount(BigDecimal pricePerMonth, LocalDate startDate, LocalDate endDate) {
+        long days = ChronoUnit.DAYS.between(startDate, endDate);
+        return pricePerMonth
+                .multiply(BigDecimal.valueOf(days))
+                .divide(BigDecimal.valueOf(30), 2, RoundingMode.HALF_UP);
     }
 
     public Optional<Booking> findById(Long id) {
@@ -41,6 +101,49 @@ public class BookingService {
         return bookingRepository.findByHouseOwner(owner);
     }
 
+    /**
+     * One page of the bookings on a landlord's houses, or of a tenant's own
+     * bookings, newest first and optionally limited to one status. Rows carry
+     * the house and tenant columns, so no entities are loaded.
+     */
+    public Slice<BookingRow> findRows(Long userId, User.Role role, Booking.BookingStatus status,
+                                      BookingCursor cursor, int size) {
+        Pageable page = PageRequest.of(0, size);
+        if (role == User.Role.LANDLORD) {
+            return cursor == null
+                    ? bookingRepository.findFirstRowsByOwner(userId, status, page)
+                    : bookingRepository.findRowsByOwnerBefore(userId, status, cursor.getCreatedAt(), cursor.getId(), page);
+        }
+        return cursor == null
+                ? bookingRepository.findFirstRowsByTenant(userId, status, page)
+                : bookingRepository.findRowsByTenantBefore(userId, status, cursor.getCreatedAt(), cursor.getId(), page);
+    }
+
+    /**
+     * Writes the bookings {@link #findRows} would list as CSV, reading them
+     * one chunk per read-only transaction so memory stays flat however long
+     * the booking history is.
+     */
+    public void exportRows(Long userId, User.Role role, Booking.BookingStatus status,
+                           OutputStream output) throws IOException {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        CsvSchema schema = CSV_MAPPER.schemaFor(BookingRow.class).withHeader();
+        try (SequenceWriter writer = CSV_MAPPER.writer(schema).writeValues(output)) {
+            BookingCursor cursor = null;
+            Slice<BookingRow> chunk;
+            do {
+                BookingCursor after = cursor;
+                chunk = readOnly.execute(tx -> findRows(userId, role, status, after, exportChunkSize));
+                writer.writeAll(chunk.getContent());
+                writer.flush();
+                if (chunk.hasContent()) {
+                    cursor = BookingCursor.after(chunk.getContent().get(chunk.getNumberOfElements() - 1));
+                }
+            } while (chunk.hasNext());
+        }
+    }
+
     public List<Booking> findByHouse(House house) {
         return bookingRepository.findByHouse(house);
     }
@@ -48,18 +151,96 @@ public class BookingService {
     public Booking updateBookingStatus(Long bookingId, Booking.BookingStatus status, String rejectionReason) {
         Optional<Booking> optionalBooking = findById(bookingId);
         if (optionalBooking.isPresent()) {
-            Booking booking = optionalBooking.get();
-            booking.setStatus(status);
-            if (status == Booking.BookingStatus.REJECTED && rejectionReason != null) {
-                booking.setRejectionReason(rejectionReason);
-            }
-            return bookingRepository.save(booking);
+            return admit(optionalBooking.get().getHouse().getId(), () -> {
+                Booking booking = findById(bookingId)
+                        .orElseThrow(() -> new RuntimeException("Booking not found"));
+                if (BookingAvailabilityIndex.isBlocking(status) && availabilityIndex.hasConflict(
+                        booking.getHouse(), booking.getStartDate(), booking.getEndDate(), bookingId)) {
+                    throw new RuntimeException("Property is not available for the selected dates");
+                }
+                Booking.BookingStatus previous = booking.getStatus();
+                booking.setStatus(status);
+                if (status == Booking.BookingStatus.REJECTED && rejectionReason != null) {
+                    booking.setRejectionReason(rejectionReason);
+                }
+                Booking saved = bookingRepository.save(booking);
+                userStatsService.recordBookingTransition(saved, previous, status);
+                eventOutbox.bookingChanged(saved, previous);
+                return saved;
+            });
         }
         throw new RuntimeException("Booking not found");
     }
 
     public void deleteBooking(Long id) {
-        bookingRepository.deleteById(id);
+        Optional<Booking> found = findById(id);
+        if (found.isEmpty()) {
+            return;
+        }
+        Lock lock = houseLocks.forHouse(found.get().getHouse().getId());
+        lock.lock();
+        try {
+            Optional<Booking> booking = transactionTemplate.execute(status -> {
+                Optional<Booking> existing = bookingRepository.findById(id);
+                existing.ifPresent(b -> {
+                    bookingRepository.delete(b);
+                    userStatsService.recordBookingTransition(b, b.getStatus(), null);
+                });
+                return existing;
+            });
+            booking.ifPresent(availabilityIndex::remove);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs a booking write for one house under that house's lock stripe and in
+     * its own transaction. The calendar is updated only after commit. Overlaps
+     * admitted by another node surface as a violation of the bookings
+     * exclusion constraint; the calendar is then reloaded and the write retried.
+     */
+    private Booking admit(Long houseId, Supplier<Booking> work) {
+        Lock lock = houseLocks.forHouse(houseId);
+        lock.lock();
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    Booking saved = transactionTemplate.execute(status -> work.get());
+                    availabilityIndex.update(saved);
+                    return saved;
+                } catch (DataIntegrityViolationException e) {
+                    if (!isOverlapViolation(e)) {
+                        throw e;
+                    }
+                    availabilityIndex.evict(houseId);
+                    if (attempt >= maxAttempts) {
+                        throw new RuntimeException("Property is not available for the selected dates");
+                    }
+                } catch (TransientDataAccessException e) {
+                    if (attempt >= maxAttempts) {
+                        throw new RuntimeException("Booking could not be processed, please try again");
+                    }
+                    backOff(attempt);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isOverlapViolation(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.contains(OVERLAP_CONSTRAINT);
+    }
+
+    private void backOff(int attempt) {
+        try {
+            Thread.sleep(retryBackoffMs * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Booking was interrupted");
+        }
     }
 
     public long countByTenant(User tenant) {
@@ -0,0 +1,196 @@
+package com.houserental.service;
+
+import com.houserental.repository.SessionStore;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.session.MapSession;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Spring Session repository over a {@link SessionStore}, so a signed-in user
+ * can be served by any node. A session is written through to the store when
+ * it is created or its attributes change, and only then; a request that
+ * merely touches it records the new access time in memory, and those times
+ * are written to the store in one batch every
+ * {@code app.session.touch-flush-ms}. Reads on this node see pending times
+ * at once; other nodes see them after the flush, which is harmless as long
+ * as the interval is far below the session timeout.
+ */
+public class CompactSessionRepository implements SessionRepository<CompactSessionRepository.CompactSession> {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompactSessionRepository.class);
+
+    private final SessionStore store;
+    private final SessionAttributeCodec codec;
+    private final Duration maxInactiveInterval;
+    private final Map<String, Instant> pendingTouches = new ConcurrentHashMap<>();
+
+    public CompactSessionRepository(SessionStore store, SessionAttributeCodec codec, Duration maxInactiveInterval) {
+        this.store = store;
+        this.codec = codec;
+        this.maxInactiveInterval = maxInactiveInterval;
+    }
+
+    @Override
+    public CompactSession createSession() {
+        MapSession session = new MapSession();
+        session.setMaxInactiveInterval(maxInactiveInterval);
+        return new CompactSession(session, null);
+    }
+
+    @Override
+    public void save(CompactSession session) {
+        byte[] attributes = codec.encode(session.attributes());
+        SessionStore.Entry stored = session.stored;
+        if (stored == null) {
+            store.insert(entryFor(session, attributes));
+        } else if (!Arrays.equals(attributes, stored.attributes())
+                || !session.getId().equals(stored.id())
+                || !session.getMaxInactiveInterval().equals(stored.maxInactiveInterval())) {
+            pendingTouches.remove(stored.id());
+            store.update(stored.id(), entryFor(session, attributes));
+        } else if (session.getLastAccessedTime().isAfter(stored.lastAccessedTime())) {
+            pendingTouches.merge(session.getId(), session.getLastAccessedTime(),
+                                 (pending, latest) -> latest.isAfter(pending) ? latest : pending);
+        }
+        session.stored = entryFor(session, attributes);
+    }
+
+    @Override
+    public CompactSession findById(String id) {
+        SessionStore.Entry entry = store.load(id);
+        if (entry == null) {
+            return null;
+        }
+        Instant lastAccessedTime = entry.lastAccessedTime();
+        Instant pending = pendingTouches.get(id);
+        if (pending != null && pending.isAfter(lastAccessedTime)) {
+            lastAccessedTime = pending;
+        }
+        if (lastAccessedTime.plus(entry.maxInactiveInterval()).isBefore(Instant.now())) {
+            deleteById(id);
+            return null;
+        }
+
+        MapSession session = new MapSession(id);
+        session.setCreationTime(entry.creationTime());
+        session.setLastAccessedTime(lastAccessedTime);
+        session.setMaxInactiveInterval(entry.maxInactiveInterval());
+        codec.decode(entry.attributes()).forEach(session::setAttribute);
+        return new CompactSession(session, new SessionStore.Entry(id, entry.creationTime(), lastAccessedTime,
+                                                                  entry.maxInactiveInterval(), entry.attributes()));
+    }
+
+    @Override
+    public void deleteById(String id) {
+        pendingTouches.remove(id);
+        store.delete(id);
+    }
+
+    /** Writes the access times recorded since the last flush. */
+    @Scheduled(fixedDelayString = "${app.session.touch-flush-ms:10000}",
+               initialDelayString = "${app.session.touch-flush-ms:10000}")
+    @PreDestroy
+    public void flushTouches() {
+        if (pendingTouches.isEmpty()) {
+            return;
+        }
+        Map<String, Instant> batch = new HashMap<>();
+        for (Map.Entry<String, Instant> touched : pendingTouches.entrySet()) {
+            batch.put(touched.getKey(), touched.getValue());
+        }
+        try {
+            store.touch(batch);
+        } catch (RuntimeException e) {
+            logger.warn("Could not write {} session access times, retrying on the next flush", batch.size(), e);
+            return;
+        }
+        // Keep times that moved on while the batch was written
+        batch.forEach(pendingTouches::remove);
+    }
+
+    @Scheduled(cron = "${app.session.purge-cron:0 */5 * * * *}")
+    public void purgeExpired() {
+        int purged = store.deleteExpired(Instant.now());
+        if (purged > 0) {
+            logger.debug("Purged {} expired web sessions", purged);
+        }
+    }
+
+    private static SessionStore.Entry entryFor(CompactSession session, byte[] attributes) {
+        return new SessionStore.Entry(session.getId(), session.getCreationTime(), session.getLastAccessedTime(),
+                                      session.getMaxInactiveInterval(), attributes);
+    }
+
+    /**
+     * A session with the state it was last read or written with, against
+     * which {@link #save} decides what, if anything, to write.
+     */
+    public static final class CompactSession implements Session {
+
+        private final MapSession delegate;
+        private SessionStore.Entry stored;
+
+        CompactSession(MapSession delegate, SessionStore.Entry stored) {
+            this.delegate = delegate;
+            this.stored = stored;
+        }
+
+        Map<String, Object> attributes() {
+            Map<String, Object> attributes = new HashMap<>();
+            for (String name : delegate.getAttributeNames()) {
+                attributes.put(name, delegate.getAttribute(name));
+            }
+            return attributes;
+        }
+
+        @Override
+        public String getId() { return delegate.getId(); }
+
+        @Override
+        public String changeSessionId() { return delegate.changeSessionId(); }
+
+        @Override
+        public <T> T getAttribute(String attributeName) { return delegate.getAttribute(attributeName); }
+
+        @Override
+        public Set<String> getAttributeNames() { return delegate.getAttributeNames(); }
+
+        @Override
+        public void setAttribute(String attributeName, Object attributeValue) {
+            delegate.setAttribute(attributeName, attributeValue);
+        }
+
+        @Override
+        public void removeAttribute(String attributeName) { delegate.removeAttribute(attributeName); }
+
+        @Override
+        public Instant getCreationTime() { return delegate.getCreationTime(); }
+
+        @Override
+        public void setLastAccessedTime(Instant lastAccessedTime) { delegate.setLastAccessedTime(lastAccessedTime); }
+
+        @Override
+        public Instant getLastAccessedTime() { return delegate.getLastAccessedTime(); }
+
+        @Override
+        public void setMaxInactiveInterval(Duration interval) { delegate.setMaxInactiveInterval(interval); }
+
+        @Override
+        public Duration getMaxInactiveInterval() { return delegate.getMaxInactiveInterval(); }
+
+        @Override
+        public boolean isExpired() { return delegate.isExpired(); }
+    }
+}
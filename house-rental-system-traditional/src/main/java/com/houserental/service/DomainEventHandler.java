@@ -0,0 +1,16 @@
+package com.houserental.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.houserental.entity.OutboxEvent;
+
+/**
+ * Receives every event delivered from the outbox; implementations ignore
+ * the types they are not interested in. Events of one aggregate arrive in
+ * the order they were written, but delivery is at-least-once: an event is
+ * delivered again after a failure or a dispatcher fail-over, so handlers
+ * must be idempotent. Throwing makes the dispatcher retry the event.
+ */
+public interface DomainEventHandler {
+
+    void handle(OutboxEvent event, JsonNode payload);
+}
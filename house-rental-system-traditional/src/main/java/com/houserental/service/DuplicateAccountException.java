@@ -0,0 +1,19 @@
+package com.houserental.service;
+
+/**
+ * Thrown by {@link UserService#registerUser} when the username or email is
+ * already taken; {@link #getField()} names the form field to flag.
+ */
+public class DuplicateAccountException extends RuntimeException {
+
+    private final String field;
+
+    public DuplicateAccountException(String field, String message, Throwable cause) {
+        super(message, cause);
+        this.field = field;
+    }
+
+    public String getField() {
+        return field;
+    }
+}
@@ -0,0 +1,89 @@
+package com.houserental.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.houserental.entity.Booking;
+import com.houserental.entity.House;
+import com.houserental.entity.OutboxEvent;
+import com.houserental.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Records booking and house lifecycle events in the outbox table. Events
+ * must be appended inside the transaction that makes the change, so an
+ * event exists exactly when its change was committed; {@link OutboxDispatcher}
+ * delivers them afterwards, off the request thread.
+ */
+@Component
+public class EventOutbox {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /** Records a new booking or a status change from {@code previous}. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bookingChanged(Booking booking, Booking.BookingStatus previous) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("bookingId", booking.getId());
+        payload.put("houseId", booking.getHouse().getId());
+        payload.put("ownerId", booking.getHouse().getOwner().getId());
+        payload.put("tenantId", booking.getTenant().getId());
+        payload.put("status", booking.getStatus());
+        payload.put("previousStatus", previous);
+        payload.put("startDate", booking.getStartDate());
+        payload.put("endDate", booking.getEndDate());
+        payload.put("totalAmount", booking.getTotalAmount());
+        append(OutboxEvent.AggregateType.BOOKING, booking.getId(), bookingEventType(booking, previous), payload);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void houseChanged(OutboxEvent.EventType eventType, House house) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("houseId", house.getId());
+        payload.put("ownerId", house.getOwner().getId());
+        payload.put("availabilityStatus", house.getAvailabilityStatus());
+        payload.put("pricePerMonth", house.getPricePerMonth());
+        append(OutboxEvent.AggregateType.HOUSE, house.getId(), eventType, payload);
+    }
+
+    private void append(OutboxEvent.AggregateType aggregateType, Long aggregateId,
+                        OutboxEvent.EventType eventType, Map<String, Object> payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + eventType + " event", e);
+        }
+        outboxEventRepository.save(new OutboxEvent(aggregateType, aggregateId, eventType, json));
+        meterRegistry.counter("app.outbox.appended", "type", eventType.name()).increment();
+    }
+
+    private static OutboxEvent.EventType bookingEventType(Booking booking, Booking.BookingStatus previous) {
+        if (previous == null) {
+            return OutboxEvent.EventType.BOOKING_REQUESTED;
+        }
+        switch (booking.getStatus()) {
+            case APPROVED:
+                return OutboxEvent.EventType.BOOKING_APPROVED;
+            case REJECTED:
+                return OutboxEvent.EventType.BOOKING_REJECTED;
+            case CANCELLED:
+                return OutboxEvent.EventType.BOOKING_CANCELLED;
+            default:
+                return OutboxEvent.EventType.BOOKING_STATUS_CHANGED;
+        }
+    }
+}
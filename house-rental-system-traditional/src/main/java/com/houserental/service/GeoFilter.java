@@ -0,0 +1,114 @@
+package com.houserental.service;
+
+/**
+ * Location constraint for a house search: either a radius around a point or
+ * a latitude/longitude bounding box. Results are ordered by distance from the
+ * center, which for a bounding box is its midpoint. Boxes crossing the
+ * antimeridian are not supported.
+ */
+public final class GeoFilter {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE_LATITUDE = Math.PI * EARTH_RADIUS_KM / 180.0;
+
+    private final double centerLatitude;
+    private final double centerLongitude;
+    private final Double radiusKm;
+    private final double minLatitude;
+    private final double maxLatitude;
+    private final double minLongitude;
+    private final double maxLongitude;
+
+    private GeoFilter(double centerLatitude, double centerLongitude, Double radiusKm,
+                      double minLatitude, double maxLatitude, double minLongitude, double maxLongitude) {
+        this.centerLatitude = centerLatitude;
+        this.centerLongitude = centerLongitude;
+        this.radiusKm = radiusKm;
+        this.minLatitude = minLatitude;
+        this.maxLatitude = maxLatitude;
+        this.minLongitude = minLongitude;
+        this.maxLongitude = maxLongitude;
+    }
+
+    public static GeoFilter radius(double latitude, double longitude, double radiusKm) {
+        double latitudeDelta = radiusKm / KM_PER_DEGREE_LATITUDE;
+        double cosLatitude = Math.cos(Math.toRadians(latitude));
+        // Near the poles the box spans every longitude
+        double longitudeDelta = cosLatitude < 1e-6 ? 180.0 : Math.min(180.0, latitudeDelta / cosLatitude);
+        return new GeoFilter(latitude, longitude, radiusKm,
+                             Math.max(-90.0, latitude - latitudeDelta), Math.min(90.0, latitude + latitudeDelta),
+                             Math.max(-180.0, longitude - longitudeDelta), Math.min(180.0, longitude + longitudeDelta));
+    }
+
+    public static GeoFilter boundingBox(double minLatitude, double minLongitude,
+                                        double maxLatitude, double maxLongitude) {
+        return new GeoFilter((minLatitude + maxLatitude) / 2, (minLongitude + maxLongitude) / 2, null,
+                             minLatitude, maxLatitude, minLongitude, maxLongitude);
+    }
+
+    /**
+     * Builds a filter from optional request parameters, preferring a complete
+     * radius over a complete bounding box. Returns null when neither is given
+     * or the values are out of range.
+     */
+    public static GeoFilter of(Double latitude, Double longitude, Double radiusKm,
+                               Double minLatitude, Double minLongitude, Double maxLatitude, Double maxLongitude) {
+        if (latitude != null && longitude != null && radiusKm != null) {
+            if (!isLatitude(latitude) || !isLongitude(longitude) || !(radiusKm > 0)) {
+                return null;
+            }
+            return radius(latitude, longitude, radiusKm);
+        }
+        if (minLatitude != null && minLongitude != null && maxLatitude != null && maxLongitude != null) {
+            if (!isLatitude(minLatitude) || !isLatitude(maxLatitude) || minLatitude > maxLatitude
+                    || !isLongitude(minLongitude) || !isLongitude(maxLongitude) || minLongitude > maxLongitude) {
+                return null;
+            }
+            return boundingBox(minLatitude, minLongitude, maxLatitude, maxLongitude);
+        }
+        return null;
+    }
+
+    public boolean contains(double latitude, double longitude) {
+        if (latitude < minLatitude || latitude > maxLatitude
+                || longitude < minLongitude || longitude > maxLongitude) {
+            return false;
+        }
+        return radiusKm == null || distanceKm(latitude, longitude) <= radiusKm;
+    }
+
+    public double distanceKm(double latitude, double longitude) {
+        return haversineKm(centerLatitude, centerLongitude, latitude, longitude);
+    }
+
+    public static double haversineKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double dLatitude = Math.toRadians(latitude2 - latitude1);
+        double dLongitude = Math.toRadians(longitude2 - longitude1);
+        double a = Math.sin(dLatitude / 2) * Math.sin(dLatitude / 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+                * Math.sin(dLongitude / 2) * Math.sin(dLongitude / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private static boolean isLatitude(double value) {
+        return value >= -90.0 && value <= 90.0;
+    }
+
+    private static boolean isLongitude(double value) {
+        return value >= -180.0 && value <= 180.0;
+    }
+
+    public double getCenterLatitude() { return centerLatitude; }
+
+    public double getCenterLongitude() { return centerLongitude; }
+
+    public Double getRadiusKm() { return radiusKm; }
+
+    public double getMinLatitude() { return minLatitude; }
+
+    public double getMaxLatitude() { return maxLatitude; }
+
+    public double getMinLongitude() { return minLongitude; }
+
+    public double getMaxLongitude() { return maxLongitude; }
+}
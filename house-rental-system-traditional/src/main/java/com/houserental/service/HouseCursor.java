@@ -0,0 +1,57 @@
+package com.houserental.service;
+
+import com.houserental.dto.HouseCard;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a newest-first house listing, identified by the (createdAt, id)
+ * of the last house on the previous page. Encoded as an opaque URL-safe token.
+ */
+public final class HouseCursor {
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    private HouseCursor(LocalDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static HouseCursor after(HouseCard card) {
+        return new HouseCursor(card.getCreatedAt(), card.getId());
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}, returning null for a
+     * missing or malformed token so the listing starts from the first page.
+     */
+    public static HouseCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf('|');
+            if (separator < 0) {
+                return null;
+            }
+            return new HouseCursor(LocalDateTime.parse(value.substring(0, separator)),
+                                   Long.valueOf(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    public String encode() {
+        String value = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public Long getId() { return id; }
+}
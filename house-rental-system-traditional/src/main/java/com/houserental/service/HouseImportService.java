@@ -0,0 +1,282 @@
+package com.houserental.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.houserental.dto.HouseImportRecord;
+import com.houserental.dto.HouseImportResult;
+import com.houserental.entity.House;
+import com.houserental.entity.OutboxEvent;
+import com.houserental.entity.User;
+import com.houserental.repository.HouseRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streams listings in and out in CSV or JSON for landlords with large
+ * portfolios. Imports are parsed record by record and inserted in chunks, each
+ * in its own transaction, so the upload is never held in memory and inserts
+ * are batched by Hibernate. Exports page through the owner's houses by id.
+ * The persistence context is cleared after every chunk: with open-in-view it
+ * lives for the whole request, and would otherwise keep every imported or
+ * exported house managed and dirty-check all of them on each flush.
+ */
+@Service
+public class HouseImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HouseImportService.class);
+
+    public enum Format {
+        CSV, JSON
+    }
+
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .enable(CsvParser.Feature.TRIM_SPACES)
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    @Autowired
+    private HouseRepository houseRepository;
+
+    @Autowired
+    private HouseService houseService;
+
+    @Autowired
+    private HouseSearchIndex houseSearchIndex;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private EventOutbox eventOutbox;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.import.max-errors:100}")
+    private int maxErrors;
+
+    @Value("${app.import.progress-retention-minutes:60}")
+    private long progressRetentionMinutes;
+
+    @Value("${app.export.chunk-size:500}")
+    private int exportChunkSize;
+
+    private final Map<Long, HouseImportResult> importsByOwner = new ConcurrentHashMap<>();
+
+    public HouseImportResult importHouses(Long ownerId, Format format, InputStream input) {
+        HouseImportResult result = new HouseImportResult();
+        HouseImportResult current = importsByOwner.compute(ownerId, (id, previous) ->
+                previous != null && previous.getStatus() == HouseImportResult.Status.RUNNING ? previous : result);
+        if (current != result) {
+            result.fail("Another import is already running for this account");
+            return result;
+        }
+
+        User owner = userService.getReference(ownerId);
+        List<House> chunk = new ArrayList<>(chunkSize);
+        try (MappingIterator<ObjectNode> records = reader(format, input)) {
+            int recordNumber = 0;
+            while (records.hasNextValue()) {
+                recordNumber++;
+                result.recordProcessed();
+                HouseImportRecord record;
+                try {
+                    record = toRecord(records.nextValue(), format);
+                } catch (JsonProcessingException e) {
+                    result.recordRejected("Record " + recordNumber + ": " + e.getOriginalMessage(), maxErrors);
+                    continue;
+                }
+                House house = record.toHouse();
+                house.setOwner(owner);
+                String error = validate(house);
+                if (error != null) {
+                    result.recordRejected("Record " + recordNumber + ": " + error, maxErrors);
+                    continue;
+                }
+                chunk.add(house);
+                if (chunk.size() >= chunkSize) {
+                    insert(chunk, result);
+                }
+            }
+            insert(chunk, result);
+            result.complete();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Listing import for user {} stopped after {} records", ownerId, result.getProcessed(), e);
+            result.fail(e instanceof DataAccessException
+                    ? "Could not save listings, records after " + result.getImported() + " were not imported"
+                    : "Could not read the upload: " + e.getMessage());
+        } finally {
+            if (result.getImported() > 0) {
+                houseService.evictAvailableListings();
+            }
+        }
+        logger.info("Listing import for user {}: {} processed, {} imported, {} rejected",
+                    ownerId, result.getProcessed(), result.getImported(), result.getRejected());
+        return result;
+    }
+
+    public Optional<HouseImportResult> getImportProgress(Long ownerId) {
+        return Optional.ofNullable(importsByOwner.get(ownerId));
+    }
+
+    /** Forgets finished imports after {@code app.import.progress-retention-minutes}. */
+    @Scheduled(fixedDelayString = "${app.import.progress-purge-ms:300000}")
+    public void purgeFinishedImports() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(progressRetentionMinutes);
+        importsByOwner.values().removeIf(result -> result.getFinishedAt() != null
+                && result.getFinishedAt().isBefore(cutoff));
+    }
+
+    /**
+     * Writes every house owned by {@code ownerId} in the import format, reading
+     * them in id order one chunk per read-only transaction.
+     */
+    public void exportHouses(Long ownerId, Format format, OutputStream output) throws IOException {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        try (SequenceWriter writer = writer(format, output)) {
+            long lastId = 0L;
+            List<HouseImportRecord> page;
+            do {
+                long afterId = lastId;
+                page = readOnly.execute(status -> {
+                    List<HouseImportRecord> records = houseRepository
+                            .findByOwnerIdAndIdGreaterThanOrderByIdAsc(ownerId, afterId, PageRequest.of(0, exportChunkSize))
+                            .stream()
+                            .map(HouseImportRecord::from)
+                            .toList();
+                    entityManager.clear();
+                    return records;
+                });
+                for (HouseImportRecord record : page) {
+                    writer.write(record);
+                    lastId = record.getId();
+                }
+                writer.flush();
+            } while (page.size() == exportChunkSize);
+        }
+    }
+
+    private void insert(List<House> chunk, HouseImportResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<House> saved = transactionTemplate.execute(status -> {
+            List<House> stored = houseRepository.saveAll(chunk);
+            userStatsService.recordHouseCountChange(chunk.get(0).getOwner().getId(), stored.size());
+            for (House house : stored) {
+                eventOutbox.houseChanged(OutboxEvent.EventType.HOUSE_CREATED, house);
+            }
+            entityManager.flush();
+            entityManager.clear();
+            return stored;
+        });
+        for (House house : saved) {
+            houseSearchIndex.index(house);
+        }
+        result.recordImported(saved.size());
+        chunk.clear();
+    }
+
+    private String validate(House house) {
+        Set<ConstraintViolation<House>> violations = validator.validate(house);
+        List<String> messages = new ArrayList<>();
+        for (ConstraintViolation<House> violation : violations) {
+            messages.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        if (house.getPropertyType() == null) {
+            messages.add("propertyType: Property type is required");
+        }
+        return messages.isEmpty() ? null : String.join("; ", messages);
+    }
+
+    // Records are read as trees first so a bad value rejects one record
+    // without leaving the parser in the middle of it
+    private MappingIterator<ObjectNode> reader(Format format, InputStream input) throws IOException {
+        if (format == Format.CSV) {
+            return CSV_MAPPER.readerFor(ObjectNode.class).with(CsvSchema.emptySchema().withHeader()).readValues(input);
+        }
+        return objectMapper.readerFor(ObjectNode.class).readValues(input);
+    }
+
+    private HouseImportRecord toRecord(ObjectNode node, Format format) throws JsonProcessingException {
+        if (format == Format.CSV) {
+            splitList(node, "images");
+            splitList(node, "amenities");
+        }
+        return objectMapper.readerFor(HouseImportRecord.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .treeToValue(node, HouseImportRecord.class);
+    }
+
+    private static void splitList(ObjectNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || !value.isTextual()) {
+            return;
+        }
+        ArrayNode items = node.putArray(field);
+        for (String item : value.asText().split(";")) {
+            if (!item.isBlank()) {
+                items.add(item.trim());
+            }
+        }
+    }
+
+    private SequenceWriter writer(Format format, OutputStream output) throws IOException {
+        if (format == Format.CSV) {
+            CsvSchema schema = CSV_MAPPER.schemaFor(HouseImportRecord.class).withHeader().withArrayElementSeparator(";");
+            return CSV_MAPPER.writer(schema).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValues(output);
+        }
+        ObjectWriter writer = objectMapper.writerFor(HouseImportRecord.class);
+        return writer.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValuesAsArray(output);
+    }
+}
@@ -0,0 +1,29 @@
+package com.houserental.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed pool of locks shared by house id, so work on one house is serialised
+ * without bookings for unrelated houses contending on a single lock.
+ */
+@Component
+public class HouseLockStripes {
+
+    private final Lock[] stripes;
+
+    public HouseLockStripes(@Value("${app.booking.lock-stripes:64}") int stripeCount) {
+        stripes = new Lock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public Lock forHouse(Long houseId) {
+        int hash = Long.hashCode(houseId) * 0x9E3779B9;
+        return stripes[Math.floorMod(hash ^ (hash >>> 16), stripes.length)];
+    }
+}
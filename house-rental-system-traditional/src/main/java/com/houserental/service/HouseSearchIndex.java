@@ -0,0 +1,698 @@
+package com.houserental.service;
+
+import com.houserental.dto.SearchFacets;
+import com.houserental.entity.House;
+import com.houserental.repository.HouseRepository;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+/**
+ * In-memory inverted index over house title, description, city and state.
+ * Query tokens of at least {@value #MIN_PREFIX_LENGTH} characters match indexed
+ * terms by prefix, so partial words behave like the LIKE based repository
+ * query they replace; shorter tokens match whole terms only, so a one-letter
+ * keyword does not expand to most of the index. Houses with coordinates are also
+ * posted under a fixed-size latitude/longitude grid cell, which narrows radius
+ * and bounding-box searches to the cells they overlap. Free-form amenities are
+ * posted as exact terms and each boolean feature keeps a bitset of the houses
+ * offering it, so amenity and feature filters are bitset intersections.
+ * Filterable attributes are held column-wise so results and facet counts come
+ * from one pass over the candidate documents. Results are ordered newest
+ * first by (createdAt, id), the order and cursor of the repository queries,
+ * since pooled id allocation means id order is not creation order.
+ */
+@Component
+public class HouseSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(HouseSearchIndex.class);
+
+    private static final int BUILD_BATCH_SIZE = 1000;
+    private static final String KEYWORD_FIELD = "k:";
+    private static final String CITY_FIELD = "c:";
+    private static final String STATE_FIELD = "s:";
+    private static final String GEO_FIELD = "g:";
+    private static final String AMENITY_FIELD = "a:";
+    private static final int MIN_PREFIX_LENGTH = 2;
+    // Below one candidate in this many houses, candidates are ranked directly
+    // instead of walking the recency order
+    private static final int SPARSE_CANDIDATES = 16;
+    private static final double GRID_CELL_DEGREES = 0.1;
+    private static final int GRID_ROWS = (int) Math.ceil(180 / GRID_CELL_DEGREES);
+    private static final int GRID_COLUMNS = (int) Math.ceil(360 / GRID_CELL_DEGREES);
+    // Larger areas are answered by checking each text candidate's coordinates
+    private static final int MAX_GRID_CELLS = 4096;
+    private static final int[] FACET_MIN_BEDROOMS = {1, 2, 3, 4, 5, 6};
+    private static final int[] FACET_MIN_BATHROOMS = {1, 2, 3, 4, 5};
+    private static final int[] PRICE_BUCKET_EDGES = {500, 1000, 1500, 2000, 3000, 5000};
+    private static final int MAX_ROOMS = 20;
+    private static final int FACET_TYPE = 1;
+    private static final int FACET_BEDROOMS = 1 << 1;
+    private static final int FACET_BATHROOMS = 1 << 2;
+    private static final int FACET_PRICE = 1 << 3;
+
+    @Autowired
+    private HouseRepository houseRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, PostingList> postings = new TreeMap<>();
+    private final Map<Integer, String[]> documents = new HashMap<>();
+    private final BitSet availableDocuments = new BitSet();
+    private final BitSet[] featureDocuments = newFeatureBitSets();
+    private final AttributeColumns columns = new AttributeColumns();
+    private final TreeSet<RecencyKey> recency = new TreeSet<>();
+    private final Set<Integer> touchedDuringBuild = new HashSet<>();
+    private boolean building;
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        Thread builder = new Thread(this::rebuild, "house-search-index-builder");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            building = true;
+            postings.clear();
+            documents.clear();
+            availableDocuments.clear();
+            for (BitSet documentsWithFeature : featureDocuments) {
+                documentsWithFeature.clear();
+            }
+            columns.clear();
+            recency.clear();
+            touchedDuringBuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        try {
+            long lastId = 0L;
+            Slice<House> batch;
+            do {
+                long after = lastId;
+                batch = readOnly.execute(status -> {
+                    Slice<House> houses = houseRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, BUILD_BATCH_SIZE));
+                    houses.forEach(house -> Hibernate.initialize(house.getAmenities()));
+                    return houses;
+                });
+                lock.writeLock().lock();
+                try {
+                    for (House house : batch) {
+                        if (!touchedDuringBuild.contains(toDocId(house.getId()))) {
+                            addDocument(house);
+                        }
+                        lastId = house.getId();
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } while (batch.hasNext());
+        } catch (RuntimeException e) {
+            logger.error("Failed to build house search index, falling back to database search", e);
+            lock.writeLock().lock();
+            try {
+                building = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            building = false;
+            touchedDuringBuild.clear();
+            ready = true;
+            logger.info("House search index built with {} houses and {} terms", documents.size(), postings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void index(House house) {
+        if (house == null || house.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            int docId = toDocId(house.getId());
+            if (building) {
+                touchedDuringBuild.add(docId);
+            }
+            removeDocument(docId);
+            addDocument(house);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long houseId) {
+        if (houseId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            int docId = toDocId(houseId);
+            if (building) {
+                touchedDuringBuild.add(docId);
+            }
+            removeDocument(docId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of available houses matching the criteria, newest first.
+     */
+    public Page<Long> search(String keyword, String city, String state,
+                             BigDecimal minPrice, BigDecimal maxPrice,
+                             Integer bedrooms, Integer bathrooms,
+                             House.PropertyType propertyType, int featureMask,
+                             Collection<String> amenities, Pageable pageable) {
+        IntPredicate filter = attributeFilter(minPrice, maxPrice, bedrooms, bathrooms, propertyType);
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0L;
+        int limit = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+        long keep = Math.min(offset + limit, Integer.MAX_VALUE);
+
+        lock.readLock().lock();
+        try {
+            BitSet candidates = candidates(keyword, city, state, featureMask, amenities);
+            // Min-heap of the newest offset + limit matches seen so far
+            PriorityQueue<RecencyKey> newest = new PriorityQueue<>();
+            long total = 0;
+            for (int docId = candidates.nextSetBit(0); docId >= 0; docId = candidates.nextSetBit(docId + 1)) {
+                if (!filter.test(docId)) {
+                    continue;
+                }
+                total++;
+                RecencyKey key = recencyKey(docId);
+                if (newest.size() < keep) {
+                    newest.add(key);
+                } else if (key.compareTo(newest.peek()) > 0) {
+                    newest.poll();
+                    newest.add(key);
+                }
+            }
+            List<RecencyKey> ordered = new ArrayList<>(newest);
+            ordered.sort(Comparator.reverseOrder());
+            List<Long> content = new ArrayList<>();
+            for (int i = (int) Math.min(offset, ordered.size()); i < ordered.size(); i++) {
+                content.add((long) ordered.get(i).docId());
+            }
+            return new PageImpl<>(content, pageable, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Keyset variant of {@link #search}: returns up to {@code size} matching ids
+     * after {@code cursor} in (createdAt, id) order, newest first, without
+     * counting all matches. This is the order of the repository's keyset
+     * query, so a cursor carries over when the index becomes ready.
+     */
+    public Slice<Long> searchBefore(String keyword, String city, String state,
+                                    BigDecimal minPrice, BigDecimal maxPrice,
+                                    Integer bedrooms, Integer bathrooms,
+                                    House.PropertyType propertyType, int featureMask,
+                                    Collection<String> amenities, HouseCursor cursor, int size) {
+        IntPredicate filter = attributeFilter(minPrice, maxPrice, bedrooms, bathrooms, propertyType);
+        RecencyKey bound = cursor == null
+                ? null
+                : new RecencyKey(AttributeColumns.toMicros(cursor.getCreatedAt()), toDocId(cursor.getId()));
+
+        lock.readLock().lock();
+        try {
+            BitSet candidates = candidates(keyword, city, state, featureMask, amenities);
+            List<Long> content = new ArrayList<>();
+            if ((long) candidates.cardinality() * SPARSE_CANDIDATES < recency.size()) {
+                PriorityQueue<RecencyKey> newest = new PriorityQueue<>();
+                for (int docId = candidates.nextSetBit(0); docId >= 0; docId = candidates.nextSetBit(docId + 1)) {
+                    RecencyKey key = recencyKey(docId);
+                    if ((bound == null || key.compareTo(bound) < 0) && filter.test(docId)) {
+                        newest.add(key);
+                        if (newest.size() > size + 1) {
+                            newest.poll();
+                        }
+                    }
+                }
+                List<RecencyKey> ordered = new ArrayList<>(newest);
+                ordered.sort(Comparator.reverseOrder());
+                ordered.forEach(key -> content.add((long) key.docId()));
+            } else {
+                NavigableSet<RecencyKey> older = bound == null ? recency : recency.headSet(bound, false);
+                for (RecencyKey key : older.descendingSet()) {
+                    if (candidates.get(key.docId()) && filter.test(key.docId())) {
+                        content.add((long) key.docId());
+                        if (content.size() > size) {
+                            break;
+                        }
+                    }
+                }
+            }
+            boolean hasNext = content.size() > size;
+            if (hasNext) {
+                content.remove(size);
+            }
+            return new SliceImpl<>(content, PageRequest.of(0, size), hasNext);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of available houses inside {@code geo} that match the
+     * other criteria, nearest first.
+     */
+    public Page<Long> searchNearby(String keyword, String city, String state,
+                                   BigDecimal minPrice, BigDecimal maxPrice,
+                                   Integer bedrooms, Integer bathrooms,
+                                   House.PropertyType propertyType, int featureMask,
+                                   Collection<String> amenities, GeoFilter geo, Pageable pageable) {
+        IntPredicate filter = attributeFilter(minPrice, maxPrice, bedrooms, bathrooms, propertyType);
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0L;
+        int limit = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+        long keep = Math.min(offset + limit, Integer.MAX_VALUE);
+
+        lock.readLock().lock();
+        try {
+            BitSet candidates = candidates(keyword, city, state, featureMask, amenities);
+            BitSet cells = gridCandidates(geo);
+            if (cells != null) {
+                candidates.and(cells);
+            }
+            // Max-heap of the nearest offset + limit matches seen so far
+            PriorityQueue<GeoMatch> nearest = new PriorityQueue<>(Comparator.reverseOrder());
+            long total = 0;
+            for (int docId = candidates.nextSetBit(0); docId >= 0; docId = candidates.nextSetBit(docId + 1)) {
+                if (!withinGeo(docId, geo) || !filter.test(docId)) {
+                    continue;
+                }
+                total++;
+                GeoMatch match = new GeoMatch(geo.distanceKm(columns.latitude(docId), columns.longitude(docId)), docId);
+                if (nearest.size() < keep) {
+                    nearest.add(match);
+                } else if (match.compareTo(nearest.peek()) < 0) {
+                    nearest.poll();
+                    nearest.add(match);
+                }
+            }
+            List<GeoMatch> ordered = new ArrayList<>(nearest);
+            ordered.sort(null);
+            List<Long> content = new ArrayList<>();
+            for (int i = (int) Math.min(offset, ordered.size()); i < ordered.size(); i++) {
+                content.add((long) ordered.get(i).docId);
+            }
+            return new PageImpl<>(content, pageable, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts matching available houses per filter value in a single pass over
+     * the candidates. Each facet ignores its own filter, so a house failing
+     * exactly one of the type, bedroom, bathroom and price filters is counted
+     * only under that facet. {@code geo} may be null.
+     */
+    public SearchFacets facets(String keyword, String city, String state,
+                               BigDecimal minPrice, BigDecimal maxPrice,
+                               Integer bedrooms, Integer bathrooms,
+                               House.PropertyType propertyType, int featureMask,
+                               Collection<String> amenities, GeoFilter geo) {
+        long minCents = minPrice == null ? Long.MIN_VALUE : AttributeColumns.toCents(minPrice, RoundingMode.CEILING);
+        long maxCents = maxPrice == null ? Long.MAX_VALUE : AttributeColumns.toCents(maxPrice, RoundingMode.FLOOR);
+        int typeOrdinal = propertyType == null ? -1 : propertyType.ordinal();
+        House.Feature[] features = House.Feature.values();
+
+        long total = 0;
+        long[] typeCounts = new long[House.PropertyType.values().length];
+        long[] bedroomHistogram = new long[MAX_ROOMS + 2];
+        long[] bathroomHistogram = new long[MAX_ROOMS + 2];
+        long[] priceCounts = new long[PRICE_BUCKET_EDGES.length + 1];
+        long[] featureCounts = new long[features.length];
+
+        lock.readLock().lock();
+        try {
+            BitSet candidates = candidates(keyword, city, state, featureMask, amenities);
+            BitSet cells = geo == null ? null : gridCandidates(geo);
+            if (cells != null) {
+                candidates.and(cells);
+            }
+            for (int docId = candidates.nextSetBit(0); docId >= 0; docId = candidates.nextSetBit(docId + 1)) {
+                if (geo != null && !withinGeo(docId, geo)) {
+                    continue;
+                }
+                int type = columns.propertyType(docId);
+                int beds = columns.bedrooms(docId);
+                int baths = columns.bathrooms(docId);
+                long priceCents = columns.priceCents(docId);
+
+                int fails = 0;
+                if (typeOrdinal >= 0 && type != typeOrdinal) {
+                    fails |= FACET_TYPE;
+                }
+                if (bedrooms != null && beds < bedrooms) {
+                    fails |= FACET_BEDROOMS;
+                }
+                if (bathrooms != null && baths < bathrooms) {
+                    fails |= FACET_BATHROOMS;
+                }
+                if (priceCents < minCents || priceCents > maxCents) {
+                    fails |= FACET_PRICE;
+                }
+                if (Integer.bitCount(fails) > 1) {
+                    continue;
+                }
+
+                if ((fails & ~FACET_TYPE) == 0 && type >= 0) {
+                    typeCounts[type]++;
+                }
+                if ((fails & ~FACET_BEDROOMS) == 0 && beds >= 0) {
+                    bedroomHistogram[Math.min(beds, MAX_ROOMS + 1)]++;
+                }
+                if ((fails & ~FACET_BATHROOMS) == 0 && baths >= 0) {
+                    bathroomHistogram[Math.min(baths, MAX_ROOMS + 1)]++;
+                }
+                if ((fails & ~FACET_PRICE) == 0) {
+                    priceCounts[priceBucket(priceCents)]++;
+                }
+                if (fails == 0) {
+                    total++;
+                    int mask = columns.featureMask(docId);
+                    for (int i = 0; mask != 0 && i < features.length; i++) {
+                        if ((mask & features[i].bit()) != 0) {
+                            featureCounts[i]++;
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<House.PropertyType, Long> typeFacet = new EnumMap<>(House.PropertyType.class);
+        for (House.PropertyType type : House.PropertyType.values()) {
+            typeFacet.put(type, typeCounts[type.ordinal()]);
+        }
+        Map<House.Feature, Long> featureFacet = new EnumMap<>(House.Feature.class);
+        for (House.Feature feature : features) {
+            featureFacet.put(feature, featureCounts[feature.ordinal()]);
+        }
+        List<SearchFacets.PriceBucket> priceFacet = new ArrayList<>();
+        for (int i = 0; i < priceCounts.length; i++) {
+            BigDecimal lower = i == 0 ? BigDecimal.ZERO : BigDecimal.valueOf(PRICE_BUCKET_EDGES[i - 1]);
+            BigDecimal upper = i < PRICE_BUCKET_EDGES.length ? BigDecimal.valueOf(PRICE_BUCKET_EDGES[i]) : null;
+            priceFacet.add(new SearchFacets.PriceBucket(lower, upper, priceCounts[i]));
+        }
+        return new SearchFacets(total, typeFacet,
+                                atLeastCounts(bedroomHistogram, FACET_MIN_BEDROOMS),
+                                atLeastCounts(bathroomHistogram, FACET_MIN_BATHROOMS),
+                                priceFacet, featureFacet);
+    }
+
+    // Turns an exact-count histogram into "at least n" counts for each option
+    private static Map<Integer, Long> atLeastCounts(long[] histogram, int[] options) {
+        long[] suffix = new long[histogram.length + 1];
+        for (int i = histogram.length - 1; i >= 0; i--) {
+            suffix[i] = suffix[i + 1] + histogram[i];
+        }
+        Map<Integer, Long> counts = new TreeMap<>();
+        for (int option : options) {
+            counts.put(option, suffix[Math.min(option, histogram.length)]);
+        }
+        return counts;
+    }
+
+    private static int priceBucket(long priceCents) {
+        int bucket = 0;
+        while (bucket < PRICE_BUCKET_EDGES.length && priceCents >= PRICE_BUCKET_EDGES[bucket] * 100L) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private boolean withinGeo(int docId, GeoFilter geo) {
+        double latitude = columns.latitude(docId);
+        return !Double.isNaN(latitude) && geo.contains(latitude, columns.longitude(docId));
+    }
+
+    private BitSet gridCandidates(GeoFilter geo) {
+        int firstRow = gridRow(geo.getMinLatitude());
+        int lastRow = gridRow(geo.getMaxLatitude());
+        int firstColumn = gridColumn(geo.getMinLongitude());
+        int lastColumn = gridColumn(geo.getMaxLongitude());
+        if ((long) (lastRow - firstRow + 1) * (lastColumn - firstColumn + 1) > MAX_GRID_CELLS) {
+            return null;
+        }
+        BitSet matches = new BitSet();
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                PostingList list = postings.get(gridTerm(row, column));
+                if (list != null) {
+                    for (int docId : list.toArray()) {
+                        matches.set(docId);
+                    }
+                }
+            }
+        }
+        return matches;
+    }
+
+    private BitSet candidates(String keyword, String city, String state,
+                              int featureMask, Collection<String> amenities) {
+        BitSet candidates = (BitSet) availableDocuments.clone();
+        for (House.Feature feature : House.Feature.values()) {
+            if ((featureMask & feature.bit()) != 0) {
+                candidates.and(featureDocuments[feature.ordinal()]);
+            }
+        }
+        for (String amenity : normalizeAmenities(amenities)) {
+            PostingList list = postings.get(AMENITY_FIELD + amenity);
+            if (list == null) {
+                candidates.clear();
+                break;
+            }
+            BitSet matches = new BitSet();
+            for (int docId : list.toArray()) {
+                matches.set(docId);
+            }
+            candidates.and(matches);
+        }
+        matchField(candidates, KEYWORD_FIELD, keyword);
+        matchField(candidates, CITY_FIELD, city);
+        matchField(candidates, STATE_FIELD, state);
+        return candidates;
+    }
+
+    private IntPredicate attributeFilter(BigDecimal minPrice, BigDecimal maxPrice,
+                                         Integer bedrooms, Integer bathrooms,
+                                         House.PropertyType propertyType) {
+        long minCents = minPrice == null ? Long.MIN_VALUE : AttributeColumns.toCents(minPrice, RoundingMode.CEILING);
+        long maxCents = maxPrice == null ? Long.MAX_VALUE : AttributeColumns.toCents(maxPrice, RoundingMode.FLOOR);
+        int typeOrdinal = propertyType == null ? -1 : propertyType.ordinal();
+        return docId -> {
+            long priceCents = columns.priceCents(docId);
+            return priceCents >= minCents && priceCents <= maxCents
+                    && (bedrooms == null || columns.bedrooms(docId) >= bedrooms)
+                    && (bathrooms == null || columns.bathrooms(docId) >= bathrooms)
+                    && (typeOrdinal < 0 || columns.propertyType(docId) == typeOrdinal);
+        };
+    }
+
+    private void matchField(BitSet candidates, String field, String query) {
+        for (String token : tokenize(query)) {
+            String prefix = field + token;
+            Collection<PostingList> lists;
+            if (token.length() < MIN_PREFIX_LENGTH) {
+                PostingList exact = postings.get(prefix);
+                lists = exact == null ? List.of() : List.of(exact);
+            } else {
+                lists = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values();
+            }
+            BitSet matches = new BitSet();
+            for (PostingList list : lists) {
+                for (int docId : list.toArray()) {
+                    matches.set(docId);
+                }
+            }
+            candidates.and(matches);
+        }
+    }
+
+    private void addDocument(House house) {
+        int docId = toDocId(house.getId());
+        Set<String> terms = new LinkedHashSet<>();
+        addTerms(terms, KEYWORD_FIELD, house.getTitle());
+        addTerms(terms, KEYWORD_FIELD, house.getDescription());
+        addTerms(terms, CITY_FIELD, house.getCity());
+        addTerms(terms, STATE_FIELD, house.getState());
+        if (house.getLatitude() != null && house.getLongitude() != null) {
+            terms.add(gridTerm(gridRow(house.getLatitude()), gridColumn(house.getLongitude())));
+        }
+        for (String amenity : normalizeAmenities(house.getAmenities())) {
+            terms.add(AMENITY_FIELD + amenity);
+        }
+
+        for (String term : terms) {
+            postings.computeIfAbsent(term, t -> new PostingList()).add(docId);
+        }
+        documents.put(docId, terms.toArray(new String[0]));
+        columns.set(docId, house);
+        recency.add(recencyKey(docId));
+        int featureMask = house.getFeatureMask();
+        for (House.Feature feature : House.Feature.values()) {
+            featureDocuments[feature.ordinal()].set(docId, (featureMask & feature.bit()) != 0);
+        }
+        availableDocuments.set(docId, house.getAvailabilityStatus() == House.AvailabilityStatus.AVAILABLE);
+    }
+
+    private void removeDocument(int docId) {
+        String[] existing = documents.remove(docId);
+        if (existing == null) {
+            return;
+        }
+        availableDocuments.clear(docId);
+        recency.remove(recencyKey(docId));
+        for (BitSet documentsWithFeature : featureDocuments) {
+            documentsWithFeature.clear(docId);
+        }
+        for (String term : existing) {
+            PostingList list = postings.get(term);
+            if (list != null) {
+                list.remove(docId);
+                if (list.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static void addTerms(Set<String> terms, String field, String text) {
+        for (String token : tokenize(text)) {
+            terms.add(field + token);
+        }
+    }
+
+    /**
+     * Trimmed, lower-cased, de-duplicated amenity names; amenities match
+     * exactly rather than by token prefix.
+     */
+    static List<String> normalizeAmenities(Collection<String> amenities) {
+        Set<String> normalized = new LinkedHashSet<>();
+        if (amenities != null) {
+            for (String amenity : amenities) {
+                if (amenity != null && !amenity.isBlank()) {
+                    normalized.add(amenity.trim().toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return new ArrayList<>(normalized);
+    }
+
+    private static BitSet[] newFeatureBitSets() {
+        BitSet[] bitSets = new BitSet[House.Feature.values().length];
+        for (int i = 0; i < bitSets.length; i++) {
+            bitSets[i] = new BitSet();
+        }
+        return bitSets;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static int gridRow(double latitude) {
+        return Math.min(GRID_ROWS - 1, Math.max(0, (int) Math.floor((latitude + 90) / GRID_CELL_DEGREES)));
+    }
+
+    private static int gridColumn(double longitude) {
+        return Math.min(GRID_COLUMNS - 1, Math.max(0, (int) Math.floor((longitude + 180) / GRID_CELL_DEGREES)));
+    }
+
+    private static String gridTerm(int row, int column) {
+        return GEO_FIELD + row + ":" + column;
+    }
+
+    private static int toDocId(Long houseId) {
+        return Math.toIntExact(houseId);
+    }
+
+    private RecencyKey recencyKey(int docId) {
+        return new RecencyKey(columns.createdAtMicros(docId), docId);
+    }
+
+    /** Position of a house in (createdAt, id) order. */
+    private record RecencyKey(long createdAtMicros, int docId) implements Comparable<RecencyKey> {
+        @Override
+        public int compareTo(RecencyKey other) {
+            int byTime = Long.compare(createdAtMicros, other.createdAtMicros);
+            return byTime != 0 ? byTime : Integer.compare(docId, other.docId);
+        }
+    }
+
+    private record GeoMatch(double distanceKm, int docId) implements Comparable<GeoMatch> {
+        @Override
+        public int compareTo(GeoMatch other) {
+            int byDistance = Double.compare(distanceKm, other.distanceKm);
+            return byDistance != 0 ? byDistance : Integer.compare(other.docId, docId);
+        }
+    }
+}
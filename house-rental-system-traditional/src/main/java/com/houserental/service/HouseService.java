@@ -1,16 +1,40 @@
 package com.houserental.service;
 
+import com.houserental.config.CacheConfig;
+import com.houserental.dto.HouseCard;
+import com.houserental.dto.HouseDetail;
+import com.houserental.dto.SearchFacets;
+import com.houserental.entity.Booking;
 import com.houserental.entity.House;
+import com.houserental.entity.OutboxEvent;
 import com.houserental.entity.User;
 import com.houserental.repository.HouseRepository;
+import com.houserental.repository.HouseStatisticsRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class HouseService {
@@ -18,18 +42,83 @@ public class HouseService {
     @Autowired
     private HouseRepository houseRepository;
 
+    @Autowired
+    private HouseStatisticsRepository houseStatisticsRepository;
+
+    @Autowired
+    private HouseSearchIndex houseSearchIndex;
+
+    @Autowired
+    private BookingAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private EventOutbox eventOutbox;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.HOUSES, key = "#result.id"),
+            @CacheEvict(cacheNames = CacheConfig.AVAILABLE_HOUSES, allEntries = true)
+    })
     public House saveHouse(House house) {
-        return houseRepository.save(house);
+        boolean created = house.getId() == null;
+        House saved = transactionTemplate.execute(status -> {
+            House stored = houseRepository.save(house);
+            if (created) {
+                userStatsService.recordHouseCountChange(stored.getOwner().getId(), 1);
+            }
+            eventOutbox.houseChanged(created ? OutboxEvent.EventType.HOUSE_CREATED
+                                             : OutboxEvent.EventType.HOUSE_UPDATED, stored);
+            return stored;
+        });
+        houseSearchIndex.index(saved);
+        return saved;
     }
 
     public Optional<House> findById(Long id) {
         return houseRepository.findById(id);
     }
 
+    /**
+     * The house as an immutable view, cached; entities are never cached, as
+     * every thread would share and could change the same instance.
+     */
+    @Cacheable(cacheNames = CacheConfig.HOUSES, unless = "#result == null")
+    @Transactional(readOnly = true)
+    public Optional<HouseDetail> findDetail(Long id) {
+        return houseRepository.findById(id).map(HouseDetail::new);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.HOUSES, key = "#id")
+    public void evictCached(Long id) {
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.AVAILABLE_HOUSES, allEntries = true)
+    public void evictAvailableListings() {
+    }
+
     public Page<House> findAllAvailable(Pageable pageable) {
         return houseRepository.findAvailableHouses(pageable);
     }
 
+    @Cacheable(cacheNames = CacheConfig.AVAILABLE_HOUSES,
+               key = "#size + ':' + (#cursor == null ? '' : #cursor.encode())")
+    @Transactional(readOnly = true)
+    public Slice<HouseCard> findAvailableCardsBefore(HouseCursor cursor, int size) {
+        if (cursor == null) {
+            return houseRepository.findFirstAvailableCards(PageRequest.of(0, size));
+        }
+        return houseRepository.findAvailableCardsBefore(cursor.getCreatedAt(), cursor.getId(), PageRequest.of(0, size));
+    }
+
+    public Long estimateAvailableCount() {
+        return houseStatisticsRepository.estimateAvailableHouses();
+    }
+
     public List<House> findByOwner(User owner) {
         return houseRepository.findByOwner(owner);
     }
@@ -41,17 +130,160 @@ public class HouseService {
     public Page<House> searchHouses(String keyword, String city, String state, 
                                   BigDecimal minPrice, BigDecimal maxPrice, 
                                   Integer bedrooms, Integer bathrooms, 
-                                  House.PropertyType propertyType, Pageable pageable) {
+                                  House.PropertyType propertyType, Set<House.Feature> features,
+                                  Collection<String> amenities, Pageable pageable) {
+        if (houseSearchIndex.isReady()) {
+            Page<Long> ids = houseSearchIndex.search(keyword, city, state, minPrice, maxPrice,
+                                                     bedrooms, bathrooms, propertyType,
+                                                     House.Feature.maskOf(features), amenities, pageable);
+            List<House> houses = houseRepository.findByIdIn(ids.getContent());
+            return new PageImpl<>(inIdOrder(ids.getContent(), houses, House::getId), pageable, ids.getTotalElements());
+        }
+        // Index is still warming up
+        List<String> requiredAmenities = HouseSearchIndex.normalizeAmenities(amenities);
         return houseRepository.searchHouses(keyword, city, state, minPrice, maxPrice, 
-                                          bedrooms, bathrooms, propertyType, pageable);
+                                          bedrooms, bathrooms, propertyType, House.Feature.maskOf(features),
+                                          amenityParameter(requiredAmenities), requiredAmenities.size(), pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<HouseCard> searchCardsBefore(String keyword, String city, String state,
+                                              BigDecimal minPrice, BigDecimal maxPrice,
+                                              Integer bedrooms, Integer bathrooms,
+                                              House.PropertyType propertyType, Set<House.Feature> features,
+                                              Collection<String> amenities, HouseCursor cursor, int size) {
+        if (houseSearchIndex.isReady()) {
+            Slice<Long> ids = houseSearchIndex.searchBefore(keyword, city, state, minPrice, maxPrice,
+                                                            bedrooms, bathrooms, propertyType,
+                                                            House.Feature.maskOf(features), amenities,
+                                                            cursor, size);
+            List<HouseCard> cards = houseRepository.findCardsByIdIn(ids.getContent());
+            return new SliceImpl<>(inIdOrder(ids.getContent(), cards, HouseCard::getId), ids.getPageable(), ids.hasNext());
+        }
+        // Index is still warming up
+        List<String> requiredAmenities = HouseSearchIndex.normalizeAmenities(amenities);
+        return houseRepository.searchCardsBefore(keyword, city, state, minPrice, maxPrice,
+                                                 bedrooms, bathrooms, propertyType, House.Feature.maskOf(features),
+                                                 amenityParameter(requiredAmenities), requiredAmenities.size(),
+                                                 cursor == null ? null : cursor.getCreatedAt(),
+                                                 cursor == null ? null : cursor.getId(),
+                                                 PageRequest.of(0, size));
+    }
+
+    /**
+     * Cards for available houses inside {@code geo}, nearest first.
+     */
+    @Transactional(readOnly = true)
+    public Page<HouseCard> searchCardsNearby(String keyword, String city, String state,
+                                             BigDecimal minPrice, BigDecimal maxPrice,
+                                             Integer bedrooms, Integer bathrooms,
+                                             House.PropertyType propertyType, Set<House.Feature> features,
+                                             Collection<String> amenities, GeoFilter geo, Pageable pageable) {
+        if (houseSearchIndex.isReady()) {
+            Page<Long> ids = houseSearchIndex.searchNearby(keyword, city, state, minPrice, maxPrice,
+                                                           bedrooms, bathrooms, propertyType,
+                                                           House.Feature.maskOf(features), amenities, geo, pageable);
+            List<HouseCard> cards = houseRepository.findCardsByIdIn(ids.getContent());
+            return new PageImpl<>(inIdOrder(ids.getContent(), cards, HouseCard::getId), pageable, ids.getTotalElements());
+        }
+        // Index is still warming up: bounding box in SQL, exact radius and ordering here
+        List<String> requiredAmenities = HouseSearchIndex.normalizeAmenities(amenities);
+        List<HouseCard> matches = houseRepository.searchCardsWithin(keyword, city, state, minPrice, maxPrice,
+                                                                    bedrooms, bathrooms, propertyType,
+                                                                    House.Feature.maskOf(features),
+                                                                    amenityParameter(requiredAmenities),
+                                                                    requiredAmenities.size(),
+                                                                    geo.getMinLatitude(), geo.getMaxLatitude(),
+                                                                    geo.getMinLongitude(), geo.getMaxLongitude())
+                .stream()
+                .filter(card -> geo.contains(card.getLatitude(), card.getLongitude()))
+                .sorted(Comparator.comparingDouble((HouseCard card) -> geo.distanceKm(card.getLatitude(), card.getLongitude()))
+                        .thenComparing(HouseCard::getId, Comparator.reverseOrder()))
+                .toList();
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = (int) Math.min(from + (long) pageable.getPageSize(), matches.size());
+        return new PageImpl<>(matches.subList(from, to), pageable, matches.size());
     }
 
+    /**
+     * Per-filter result counts for the search form, or null while the search
+     * index is still warming up. {@code geo} may be null.
+     */
+    public SearchFacets searchFacets(String keyword, String city, String state,
+                                     BigDecimal minPrice, BigDecimal maxPrice,
+                                     Integer bedrooms, Integer bathrooms,
+                                     House.PropertyType propertyType, Set<House.Feature> features,
+                                     Collection<String> amenities, GeoFilter geo) {
+        if (!houseSearchIndex.isReady()) {
+            return null;
+        }
+        return houseSearchIndex.facets(keyword, city, state, minPrice, maxPrice,
+                                       bedrooms, bathrooms, propertyType,
+                                       House.Feature.maskOf(features), amenities, geo);
+    }
+
+    // An empty IN list is not valid SQL; the query skips the amenity check when the count is 0
+    private static List<String> amenityParameter(List<String> amenities) {
+        return amenities.isEmpty() ? List.of("") : amenities;
+    }
+
+    private static <T> List<T> inIdOrder(List<Long> ids, List<T> items, Function<T, Long> idOf) {
+        Map<Long, T> itemsById = items.stream()
+                .collect(Collectors.toMap(idOf, Function.identity()));
+        return ids.stream()
+                .map(itemsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.HOUSES, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.AVAILABLE_HOUSES, allEntries = true)
+    })
     public void deleteHouse(Long id) {
-        houseRepository.deleteById(id);
+        // Bookings are removed with the house, so their counters go too
+        transactionTemplate.executeWithoutResult(status -> houseRepository.findById(id).ifPresent(house -> {
+            for (Booking booking : house.getBookings()) {
+                userStatsService.recordBookingTransition(booking, booking.getStatus(), null);
+            }
+            userStatsService.recordHouseCountChange(house.getOwner().getId(), -1);
+            eventOutbox.houseChanged(OutboxEvent.EventType.HOUSE_DELETED, house);
+            houseRepository.delete(house);
+        }));
+        houseSearchIndex.remove(id);
+        availabilityIndex.evict(id);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.HOUSES, key = "#house.id"),
+            @CacheEvict(cacheNames = CacheConfig.AVAILABLE_HOUSES, allEntries = true)
+    })
     public House updateHouse(House house) {
-        return houseRepository.save(house);
+        House updated = transactionTemplate.execute(status -> {
+            if (house.getCreatedAt() == null) {
+                // Edit forms do not carry it; the index orders results by it
+                houseRepository.findCreatedAtById(house.getId()).ifPresent(house::setCreatedAt);
+            }
+            House stored = houseRepository.save(house);
+            eventOutbox.houseChanged(OutboxEvent.EventType.HOUSE_UPDATED, stored);
+            return stored;
+        });
+        houseSearchIndex.index(updated);
+        return updated;
+    }
+
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.HOUSES, key = "#houseId"),
+            @CacheEvict(cacheNames = CacheConfig.AVAILABLE_HOUSES, allEntries = true)
+    })
+    @Transactional
+    public void addImages(Long houseId, List<String> imageUrls) {
+        House house = houseRepository.findById(houseId)
+                .orElseThrow(() -> new RuntimeException("House not found"));
+        if (house.getImages() == null) {
+            house.setImages(new ArrayList<>());
+        }
+        house.getImages().addAll(imageUrls);
     }
 
     public long countByOwner(User owner) {
@@ -63,8 +295,7 @@ public class HouseService {
     }
 
     public boolean isOwner(Long houseId, User user) {
-        Optional<House> house = findById(houseId);
-        return house.isPresent() && house.get().getOwner().getId().equals(user.getId());
+        return houseRepository.findOwnerIdById(houseId).map(user.getId()::equals).orElse(false);
     }
 }
 
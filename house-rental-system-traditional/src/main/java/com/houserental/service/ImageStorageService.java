@@ -0,0 +1,320 @@
+package com.houserental.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Stores uploaded house photos on local disk under the SHA-256 of their
+ * content, so identical uploads share one file and every stored file is
+ * immutable. Thumbnails in each configured width are generated in the
+ * background on a bounded worker pool; a thumbnail that is missing because
+ * the queue was full is scheduled again the next time it is requested.
+ */
+@Service
+public class ImageStorageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageStorageService.class);
+
+    public static final String URL_PREFIX = "/images/";
+    // Width used for listing and search cards; keep it in app.images.thumbnail-widths
+    public static final int CARD_THUMBNAIL_WIDTH = 400;
+
+    private static final Pattern IMAGE_URL = Pattern.compile("^/images/([0-9a-f]{64}\\.(?:jpg|png|gif|bmp))$");
+    private static final Map<String, String> EXTENSIONS = Map.of(
+            "jpeg", "jpg", "png", "png", "gif", "gif", "bmp", "bmp");
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "jpg", "image/jpeg", "png", "image/png", "gif", "image/gif", "bmp", "image/bmp");
+    private static final float THUMBNAIL_QUALITY = 0.85f;
+
+    @Value("${app.images.dir:uploads/images}")
+    private String storageDir;
+
+    @Value("${app.images.thumbnail-widths:200,400,800}")
+    private List<Integer> thumbnailWidths;
+
+    @Value("${app.images.worker-threads:2}")
+    private int workerThreads;
+
+    @Value("${app.images.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${app.images.max-pixels:40000000}")
+    private long maxPixels;
+
+    private Path originalsDir;
+    private Path thumbnailsDir;
+    private Set<Integer> widths;
+    private ThreadPoolExecutor thumbnailExecutor;
+    private final Set<String> pendingThumbnails = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void init() throws IOException {
+        Path root = Paths.get(storageDir).toAbsolutePath().normalize();
+        originalsDir = Files.createDirectories(root.resolve("originals"));
+        thumbnailsDir = Files.createDirectories(root.resolve("thumbnails"));
+        widths = new TreeSet<>(thumbnailWidths);
+        AtomicInteger threadNumber = new AtomicInteger();
+        thumbnailExecutor = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "image-thumbnail-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        thumbnailExecutor.shutdownNow();
+    }
+
+    /**
+     * Stores an uploaded image and schedules its thumbnails, returning the
+     * URL of the original. Throws IllegalArgumentException when the upload
+     * is not a JPEG, PNG, GIF or BMP image or is too large to decode safely.
+     */
+    public String store(MultipartFile file) {
+        Path upload = null;
+        try {
+            upload = Files.createTempFile(originalsDir, "upload-", ".tmp");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = file.getInputStream();
+                 OutputStream out = new DigestOutputStream(Files.newOutputStream(upload), digest)) {
+                in.transferTo(out);
+            }
+            String extension = detectExtension(upload);
+            String name = HexFormat.of().formatHex(digest.digest()) + "." + extension;
+            Path target = originalPath(name);
+            Files.createDirectories(target.getParent());
+            moveIfAbsent(upload, target);
+            scheduleThumbnails(name);
+            return URL_PREFIX + name;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store image " + file.getOriginalFilename(), e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            deleteQuietly(upload);
+        }
+    }
+
+    /**
+     * URL of the {@code width} pixel thumbnail for an image URL returned by
+     * {@link #store}; any other URL is returned unchanged.
+     */
+    public static String thumbnailUrl(String imageUrl, int width) {
+        if (imageUrl == null) {
+            return null;
+        }
+        Matcher matcher = IMAGE_URL.matcher(imageUrl);
+        return matcher.matches() ? URL_PREFIX + width + "/" + matcher.group(1) : imageUrl;
+    }
+
+    public static String contentType(String name) {
+        return CONTENT_TYPES.getOrDefault(name.substring(name.lastIndexOf('.') + 1), "application/octet-stream");
+    }
+
+    public Optional<Path> findOriginal(String name) {
+        Path path = originalPath(name);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    /**
+     * Returns the stored thumbnail, or empty when it has not been generated
+     * yet, in which case generation is scheduled again if nothing is pending.
+     */
+    public Optional<Path> findThumbnail(int width, String name) {
+        if (!widths.contains(width)) {
+            return Optional.empty();
+        }
+        Path path = thumbnailPath(width, name);
+        if (Files.isRegularFile(path)) {
+            return Optional.of(path);
+        }
+        if (Files.isRegularFile(originalPath(name))) {
+            scheduleThumbnails(name);
+        }
+        return Optional.empty();
+    }
+
+    public boolean isThumbnailWidth(int width) {
+        return widths.contains(width);
+    }
+
+    private void scheduleThumbnails(String name) {
+        if (!pendingThumbnails.add(name)) {
+            return;
+        }
+        try {
+            thumbnailExecutor.execute(() -> {
+                try {
+                    generateThumbnails(name);
+                } finally {
+                    pendingThumbnails.remove(name);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pendingThumbnails.remove(name);
+            logger.warn("Thumbnail queue full, deferring thumbnails for {}", name);
+        }
+    }
+
+    private void generateThumbnails(String name) {
+        try {
+            BufferedImage original = ImageIO.read(originalPath(name).toFile());
+            if (original == null) {
+                logger.warn("Could not decode stored image {}", name);
+                return;
+            }
+            for (int width : widths) {
+                Path target = thumbnailPath(width, name);
+                if (!Files.exists(target)) {
+                    Files.createDirectories(target.getParent());
+                    writeThumbnail(original, width, target);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to generate thumbnails for {}", name, e);
+        }
+    }
+
+    private void writeThumbnail(BufferedImage original, int width, Path target) throws IOException {
+        int targetWidth = Math.min(width, original.getWidth());
+        int targetHeight = Math.max(1, (int) Math.round((double) original.getHeight() * targetWidth / original.getWidth()));
+        BufferedImage scaled = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            // Transparent areas become white rather than black in the JPEG
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, targetWidth, targetHeight);
+            graphics.drawImage(original, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        Path temporary = Files.createTempFile(target.getParent(), "thumb-", ".tmp");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temporary.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(THUMBNAIL_QUALITY);
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(scaled, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            moveIfAbsent(temporary, target);
+        } finally {
+            deleteQuietly(temporary);
+        }
+    }
+
+    private String detectExtension(Path file) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                String extension = EXTENSIONS.get(reader.getFormatName().toLowerCase());
+                if (extension == null) {
+                    throw new IllegalArgumentException("Unsupported image format " + reader.getFormatName());
+                }
+                reader.setInput(in, true, true);
+                // Header dimensions only, so oversized images are refused before decoding
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > maxPixels) {
+                    throw new IllegalArgumentException("Image dimensions are too large");
+                }
+                return extension;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private Path originalPath(String name) {
+        return originalsDir.resolve(name.substring(0, 2)).resolve(name);
+    }
+
+    private Path thumbnailPath(int width, String name) {
+        String hash = name.substring(0, name.lastIndexOf('.'));
+        return thumbnailsDir.resolve(Integer.toString(width)).resolve(name.substring(0, 2)).resolve(hash + ".jpg");
+    }
+
+    // Same content always yields the same file, so an existing target is kept
+    private static void moveIfAbsent(Path source, Path target) throws IOException {
+        if (Files.exists(target)) {
+            return;
+        }
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            try {
+                Files.move(source, target);
+            } catch (FileAlreadyExistsException ignored) {
+                // Stored concurrently by another upload of the same content
+            }
+        } catch (FileAlreadyExistsException ignored) {
+            // Stored concurrently by another upload of the same content
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.debug("Could not delete temporary file {}", path, e);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.houserental.service;
+
+import com.houserental.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Issues and verifies the HS256 bearer tokens of the JSON API. A token
+ * carries everything the API needs to authorise a request (user id,
+ * username and role), so verifying one needs no session and no database
+ * read, and any node holding the same {@code app.jwt.secret} accepts it.
+ * The signing key and parser are built once and shared by all requests.
+ * Because the claims are trusted as they stand, startup fails unless the
+ * secret is at least 32 bytes; only the {@code dev} profile may run with a
+ * shorter one.
+ */
+@Service
+public class JwtService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtService.class);
+
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLE_CLAIM = "role";
+    private static final int MIN_SECRET_BYTES = 32;
+
+    @Autowired
+    private TokenRevocationList revocationList;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${app.jwt.secret:}")
+    private String secret;
+
+    @Value("${app.jwt.expiration:86400000}")
+    private long expirationMs;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    /** A signed token with the id and expiry needed to revoke it. */
+    public record IssuedToken(String token, UUID tokenId, Instant expiresAt) {}
+
+    @PostConstruct
+    void init() {
+        if (secret.getBytes(StandardCharsets.UTF_8).length < MIN_SECRET_BYTES) {
+            if (!environment.acceptsProfiles(Profiles.of("dev"))) {
+                throw new IllegalStateException("app.jwt.secret must be at least " + MIN_SECRET_BYTES
+                        + " bytes; set JWT_SECRET");
+            }
+            logger.warn("app.jwt.secret is shorter than {} bytes; allowed only in the dev profile", MIN_SECRET_BYTES);
+        }
+        // Hashing stretches secrets of any length to the 256 bits HS256 requires
+        try {
+            signingKey = Keys.hmacShaKeyFor(MessageDigest.getInstance("SHA-256")
+                                                    .digest(secret.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
+
+    public IssuedToken issue(AuthenticatedUser user) {
+        UUID tokenId = UUID.randomUUID();
+        Instant issuedAt = Instant.now();
+        Instant expiresAt = issuedAt.plusMillis(expirationMs);
+        String token = Jwts.builder()
+                .setId(tokenId.toString())
+                .setSubject(user.getUsername())
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(ROLE_CLAIM, user.getRole().name())
+                .setIssuedAt(Date.from(issuedAt))
+                .setExpiration(Date.from(expiresAt))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
+                .compact();
+        return new IssuedToken(token, tokenId, expiresAt);
+    }
+
+    /**
+     * Returns the principal for a token whose signature and expiry check out
+     * and that has not been revoked, or empty otherwise.
+     */
+    public Optional<AuthenticatedUser> authenticate(String token) {
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("Rejected API token: {}", e.getMessage());
+            return Optional.empty();
+        }
+        try {
+            if (revocationList.isRevoked(UUID.fromString(claims.getId()), claims.getExpiration().toInstant())) {
+                return Optional.empty();
+            }
+            User user = new User();
+            user.setId(claims.get(USER_ID_CLAIM, Long.class));
+            user.setUsername(claims.getSubject());
+            user.setRole(User.Role.valueOf(claims.get(ROLE_CLAIM, String.class)));
+            user.setPassword("");
+            return Optional.of(new AuthenticatedUser(user,
+                    List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()))));
+        } catch (RuntimeException e) {
+            logger.debug("Rejected API token with malformed claims: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /** Revokes a token still within its lifetime; expired ones are ignored. */
+    public void revoke(String token) {
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            revocationList.revoke(UUID.fromString(claims.getId()), claims.getExpiration().toInstant());
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("Ignored revocation of an invalid API token: {}", e.getMessage());
+        }
+    }
+}
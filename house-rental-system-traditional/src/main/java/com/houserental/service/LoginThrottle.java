@@ -0,0 +1,127 @@
+package com.houserental.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Token buckets limiting sign-in attempts per client IP and per username.
+ * Buckets live in a fixed number of stripes, each guarded by its own monitor
+ * and capped at {@code max-keys-per-stripe} entries with least recently used
+ * keys dropped first, so the table stays bounded however many distinct IPs
+ * or usernames an attacker cycles through. Refusals are counted in the
+ * {@code app.login.throttled} metric.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final double NANOS_PER_MINUTE = 60_000_000_000d;
+
+    private final Stripe[] stripes;
+    private final int ipCapacity;
+    private final double ipRefillPerNano;
+    private final int usernameCapacity;
+    private final double usernameRefillPerNano;
+    private final Counter ipThrottled;
+    private final Counter usernameThrottled;
+
+    public LoginThrottle(MeterRegistry meterRegistry,
+                         @Value("${app.security.login-throttle.stripes:64}") int stripeCount,
+                         @Value("${app.security.login-throttle.max-keys-per-stripe:1024}") int maxKeysPerStripe,
+                         @Value("${app.security.login-throttle.ip-capacity:20}") int ipCapacity,
+                         @Value("${app.security.login-throttle.ip-refill-per-minute:10}") double ipRefillPerMinute,
+                         @Value("${app.security.login-throttle.username-capacity:5}") int usernameCapacity,
+                         @Value("${app.security.login-throttle.username-refill-per-minute:2}") double usernameRefillPerMinute) {
+        stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(maxKeysPerStripe);
+        }
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPerNano = ipRefillPerMinute / NANOS_PER_MINUTE;
+        this.usernameCapacity = usernameCapacity;
+        this.usernameRefillPerNano = usernameRefillPerMinute / NANOS_PER_MINUTE;
+        this.ipThrottled = throttledCounter(meterRegistry, "ip");
+        this.usernameThrottled = throttledCounter(meterRegistry, "username");
+    }
+
+    /** Takes a token from the client IP's bucket, returning false when it is empty. */
+    public boolean tryAcquireForIp(String ip) {
+        return tryAcquire("ip:" + ip, ipCapacity, ipRefillPerNano, ipThrottled);
+    }
+
+    /**
+     * Takes a token from the username's bucket, returning false when it is
+     * empty. Usernames are compared case-insensitively so case variants of
+     * one account share a bucket.
+     */
+    public boolean tryAcquireForUsername(String username) {
+        return tryAcquire("user:" + username.toLowerCase(Locale.ROOT), usernameCapacity, usernameRefillPerNano,
+                          usernameThrottled);
+    }
+
+    private boolean tryAcquire(String key, int capacity, double refillPerNano, Counter throttled) {
+        Stripe stripe = stripeFor(key);
+        long now = System.nanoTime();
+        boolean acquired;
+        synchronized (stripe) {
+            Bucket bucket = stripe.buckets.computeIfAbsent(key, k -> new Bucket(capacity, now));
+            acquired = bucket.tryTake(capacity, refillPerNano, now);
+        }
+        if (!acquired) {
+            throttled.increment();
+        }
+        return acquired;
+    }
+
+    private Stripe stripeFor(String key) {
+        int hash = key.hashCode() * 0x9E3779B9;
+        return stripes[Math.floorMod(hash ^ (hash >>> 16), stripes.length)];
+    }
+
+    private static Counter throttledCounter(MeterRegistry meterRegistry, String limit) {
+        return Counter.builder("app.login.throttled")
+                .description("Sign-in and registration attempts refused by the login throttle")
+                .tag("limit", limit)
+                .register(meterRegistry);
+    }
+
+    private static final class Stripe {
+
+        final Map<String, Bucket> buckets;
+
+        Stripe(int maxKeys) {
+            buckets = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                    return size() > maxKeys;
+                }
+            };
+        }
+    }
+
+    private static final class Bucket {
+
+        private double tokens;
+        private long refilledAt;
+
+        Bucket(int capacity, long now) {
+            this.tokens = capacity;
+            this.refilledAt = now;
+        }
+
+        boolean tryTake(int capacity, double refillPerNano, long now) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * refillPerNano);
+            refilledAt = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package com.houserental.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.houserental.entity.OutboxEvent;
+import com.houserental.entity.OutboxLease;
+import com.houserental.repository.OutboxEventRepository;
+import com.houserental.repository.OutboxLeaseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers outbox events to the {@link DomainEventHandler}s in the
+ * background. One node at a time holds the dispatcher lease; every poll it
+ * reads pending events from the lowest pending id, skipping those it has
+ * already handed out, in batches of {@code app.outbox.batch-size}. Ids are
+ * allocated at insert but committed in any order, so no high-water mark is
+ * kept: an event committed after a later one was read is still picked up
+ * by the next poll. Each event goes to one of {@code app.outbox.lanes}
+ * single-threaded lanes chosen by aggregate, so events of one booking or
+ * house are handled in the order they were written while different
+ * aggregates proceed in parallel. Lanes have bounded queues: when they are
+ * full the dispatcher stops reading until they drain. An event is marked
+ * processed only after every handler succeeded, in batches; a failing
+ * event is retried with backoff and, after {@code app.outbox.max-attempts},
+ * parked with its error. Undelivered events are picked up again by
+ * whichever node holds the lease next.
+ */
+@Component
+public class OutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private static final String LEASE_NAME = "outbox-dispatcher";
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxLeaseRepository outboxLeaseRepository;
+
+    @Autowired
+    private ObjectProvider<DomainEventHandler> handlers;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.outbox.poll-ms:500}")
+    private long pollMs;
+
+    @Value("${app.outbox.lanes:4}")
+    private int laneCount;
+
+    @Value("${app.outbox.lane-capacity:256}")
+    private int laneCapacity;
+
+    @Value("${app.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.outbox.retry-backoff-ms:200}")
+    private long retryBackoffMs;
+
+    @Value("${app.outbox.lease-seconds:30}")
+    private long leaseSeconds;
+
+    @Value("${app.outbox.retention-days:7}")
+    private long retentionDays;
+
+    private final String owner = hostName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+    private final Queue<Long> delivered = new ConcurrentLinkedQueue<>();
+    // Handed to a lane and not yet recorded as processed or failed
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile boolean running;
+    private Lane[] lanes;
+    private Thread poller;
+    private Timer handleTimer;
+    private Timer lagTimer;
+    private Counter backpressure;
+
+    // Only touched by the poller thread
+    private boolean leader;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            logger.info("Outbox dispatch is disabled on this node");
+            return;
+        }
+        handleTimer = Timer.builder("app.outbox.handle")
+                .description("Time spent delivering one outbox event to all handlers")
+                .register(meterRegistry);
+        lagTimer = Timer.builder("app.outbox.lag")
+                .description("Time from writing an outbox event to its delivery")
+                .register(meterRegistry);
+        backpressure = Counter.builder("app.outbox.backpressure")
+                .description("Polls cut short because a dispatch lane was full")
+                .register(meterRegistry);
+        Gauge.builder("app.outbox.in-flight", inFlight, AtomicInteger::get)
+                .description("Outbox events queued in or being handled by the dispatch lanes")
+                .register(meterRegistry);
+
+        running = true;
+        lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new Lane(i);
+        }
+        poller = new Thread(this::pollLoop, "outbox-dispatcher");
+        poller.setDaemon(true);
+        poller.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        poller.interrupt();
+        poller.join(TimeUnit.SECONDS.toMillis(5));
+        for (Lane lane : lanes) {
+            lane.thread.interrupt();
+        }
+        for (Lane lane : lanes) {
+            lane.thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        try {
+            markDelivered();
+            if (leader) {
+                outboxLeaseRepository.release(LEASE_NAME, owner, Instant.now());
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not record outbox progress on shutdown; undelivered events will be retried", e);
+        }
+    }
+
+    /** Deletes delivered events older than {@code app.outbox.retention-days}. */
+    @Scheduled(cron = "${app.outbox.purge-cron:0 0 * * * *}")
+    public void purgeDelivered() {
+        int purged = outboxEventRepository.deleteProcessedBefore(Instant.now().minus(Duration.ofDays(retentionDays)));
+        if (purged > 0) {
+            logger.debug("Purged {} delivered outbox events", purged);
+        }
+    }
+
+    private void pollLoop() {
+        while (running) {
+            boolean more;
+            try {
+                more = poll();
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                logger.warn("Outbox poll failed", e);
+                more = false;
+            }
+            if (!more) {
+                try {
+                    Thread.sleep(pollMs);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /** Dispatches one batch; returns true when more events are probably waiting. */
+    private boolean poll() throws InterruptedException {
+        markDelivered();
+        if (!leader && inFlight.get() > 0) {
+            // Finish what was handed out before the lease was lost, then compete again
+            return false;
+        }
+        if (!holdLease()) {
+            if (leader) {
+                logger.info("Outbox dispatcher lease lost by {}", owner);
+                leader = false;
+                for (Lane lane : lanes) {
+                    List<OutboxEvent> dropped = new ArrayList<>();
+                    lane.queue.drainTo(dropped);
+                    inFlight.addAndGet(-dropped.size());
+                    dropped.forEach(event -> queued.remove(event.getId()));
+                }
+            }
+            return false;
+        }
+        if (!leader) {
+            logger.info("Outbox dispatcher lease taken by {}", owner);
+            leader = true;
+        }
+
+        int capacity = Math.min(batchSize, laneCount * laneCapacity - inFlight.get());
+        if (capacity <= 0) {
+            return false;
+        }
+        // Events already handed out are still pending, so read past them
+        List<Long> pending = outboxEventRepository.findPendingIds(PageRequest.of(0, queued.size() + capacity));
+        List<Long> fresh = new ArrayList<>(capacity);
+        for (Long id : pending) {
+            if (!queued.contains(id) && fresh.size() < capacity) {
+                fresh.add(id);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return false;
+        }
+        for (OutboxEvent event : outboxEventRepository.findByIdInOrderById(fresh)) {
+            inFlight.incrementAndGet();
+            queued.add(event.getId());
+            if (!laneFor(event).queue.offer(event, pollMs, TimeUnit.MILLISECONDS)) {
+                // Stop here so the events of this aggregate stay in order; the rest is read again
+                inFlight.decrementAndGet();
+                queued.remove(event.getId());
+                backpressure.increment();
+                return false;
+            }
+        }
+        return fresh.size() == capacity;
+    }
+
+    private boolean holdLease() {
+        Instant now = Instant.now();
+        Instant expiresAt = now.plusSeconds(leaseSeconds);
+        if (outboxLeaseRepository.acquire(LEASE_NAME, owner, expiresAt, now) > 0) {
+            return true;
+        }
+        if (outboxLeaseRepository.existsById(LEASE_NAME)) {
+            return false;
+        }
+        try {
+            outboxLeaseRepository.save(new OutboxLease(LEASE_NAME, owner, expiresAt));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Created concurrently by another node
+            return false;
+        }
+    }
+
+    private void markDelivered() {
+        List<Long> ids = new ArrayList<>();
+        for (Long id = delivered.poll(); id != null; id = delivered.poll()) {
+            ids.add(id);
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            outboxEventRepository.markProcessed(ids, Instant.now());
+        } catch (RuntimeException e) {
+            delivered.addAll(ids);
+            throw e;
+        }
+        ids.forEach(queued::remove);
+    }
+
+    private Lane laneFor(OutboxEvent event) {
+        int hash = (31 * event.getAggregateType().ordinal() + Long.hashCode(event.getAggregateId())) * 0x9E3779B9;
+        return lanes[Math.floorMod(hash ^ (hash >>> 16), lanes.length)];
+    }
+
+    private void deliver(OutboxEvent event) throws InterruptedException {
+        JsonNode payload;
+        try {
+            payload = objectMapper.readTree(event.getPayload());
+        } catch (JsonProcessingException e) {
+            park(event, 1, e);
+            return;
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                handleTimer.record(() -> handlers.orderedStream().forEach(handler -> handler.handle(event, payload)));
+                delivered.add(event.getId());
+                lagTimer.record(Duration.between(event.getCreatedAt(), Instant.now()));
+                dispatched(event, "delivered").increment();
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts) {
+                    park(event, attempt, e);
+                    return;
+                }
+                dispatched(event, "retried").increment();
+                Thread.sleep(retryBackoffMs << Math.min(attempt - 1, 10));
+            }
+        }
+    }
+
+    /** Takes an event out of delivery after its last failed attempt. */
+    private void park(OutboxEvent event, int attempts, Exception cause) {
+        logger.error("Giving up on outbox event {} ({} {} {}) after {} attempts", event.getId(),
+                     event.getEventType(), event.getAggregateType(), event.getAggregateId(), attempts, cause);
+        dispatched(event, "failed").increment();
+        String error = String.valueOf(cause);
+        try {
+            outboxEventRepository.markFailed(event.getId(), attempts,
+                                             error.substring(0, Math.min(error.length(), MAX_ERROR_LENGTH)),
+                                             Instant.now());
+        } catch (RuntimeException e) {
+            logger.warn("Could not park outbox event {}; it will be delivered again", event.getId(), e);
+        }
+        queued.remove(event.getId());
+    }
+
+    private Counter dispatched(OutboxEvent event, String result) {
+        return Counter.builder("app.outbox.dispatched")
+                .description("Outbox event deliveries by event type and result")
+                .tag("type", event.getEventType().name())
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown-host";
+        }
+    }
+
+    private final class Lane implements Runnable {
+
+        final BlockingQueue<OutboxEvent> queue = new ArrayBlockingQueue<>(laneCapacity);
+        final Thread thread;
+
+        Lane(int index) {
+            thread = new Thread(this, "outbox-lane-" + index);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                OutboxEvent event;
+                try {
+                    event = queue.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                try {
+                    deliver(event);
+                } catch (InterruptedException e) {
+                    // Shutting down; the event stays pending and is delivered again later
+                    queued.remove(event.getId());
+                    return;
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.houserental.service;
+
+import java.util.Arrays;
+
+/**
+ * Sorted list of document ids stored as delta-encoded varints. Small batches of
+ * additions and removals are buffered and folded into the encoded block once
+ * they grow past {@link #MERGE_THRESHOLD}.
+ */
+final class PostingList {
+
+    private static final int MERGE_THRESHOLD = 64;
+    private static final int[] EMPTY = new int[0];
+
+    private byte[] encoded = new byte[0];
+    private int encodedCount;
+    private int[] additions = EMPTY;
+    private int[] removals = EMPTY;
+
+    void add(int docId) {
+        int removed = Arrays.binarySearch(removals, docId);
+        if (removed >= 0) {
+            removals = without(removals, removed);
+            return;
+        }
+        int pos = Arrays.binarySearch(additions, docId);
+        if (pos < 0) {
+            additions = with(additions, -pos - 1, docId);
+            mergeIfNeeded();
+        }
+    }
+
+    // Callers only remove ids they previously added, so an id that is not
+    // pending in additions must live in the encoded block.
+    void remove(int docId) {
+        int pos = Arrays.binarySearch(additions, docId);
+        if (pos >= 0) {
+            additions = without(additions, pos);
+            return;
+        }
+        int removed = Arrays.binarySearch(removals, docId);
+        if (removed < 0) {
+            removals = with(removals, -removed - 1, docId);
+            mergeIfNeeded();
+        }
+    }
+
+    int size() {
+        return encodedCount - removals.length + additions.length;
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    int[] toArray() {
+        int[] result = new int[size()];
+        int count = 0;
+        int a = 0;
+        int r = 0;
+        int pos = 0;
+        int value = 0;
+        for (int i = 0; i < encodedCount; i++) {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = encoded[pos++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            value += delta;
+
+            while (r < removals.length && removals[r] < value) {
+                r++;
+            }
+            if (r < removals.length && removals[r] == value) {
+                continue;
+            }
+            while (a < additions.length && additions[a] < value) {
+                result[count++] = additions[a++];
+            }
+            result[count++] = value;
+        }
+        while (a < additions.length) {
+            result[count++] = additions[a++];
+        }
+        return result;
+    }
+
+    private void mergeIfNeeded() {
+        if (additions.length + removals.length <= MERGE_THRESHOLD) {
+            return;
+        }
+        int[] merged = toArray();
+        encoded = encode(merged);
+        encodedCount = merged.length;
+        additions = EMPTY;
+        removals = EMPTY;
+    }
+
+    private static byte[] encode(int[] ids) {
+        byte[] out = new byte[ids.length * 5];
+        int pos = 0;
+        int previous = 0;
+        for (int id : ids) {
+            int delta = id - previous;
+            previous = id;
+            while ((delta & ~0x7F) != 0) {
+                out[pos++] = (byte) ((delta & 0x7F) | 0x80);
+                delta >>>= 7;
+            }
+            out[pos++] = (byte) delta;
+        }
+        return Arrays.copyOf(out, pos);
+    }
+
+    private static int[] with(int[] values, int index, int value) {
+        int[] copy = new int[values.length + 1];
+        System.arraycopy(values, 0, copy, 0, index);
+        copy[index] = value;
+        System.arraycopy(values, index, copy, index + 1, values.length - index);
+        return copy;
+    }
+
+    private static int[] without(int[] values, int index) {
+        if (values.length == 1) {
+            return EMPTY;
+        }
+        int[] copy = new int[values.length - 1];
+        System.arraycopy(values, 0, copy, 0, index);
+        System.arraycopy(values, index + 1, copy, index, values.length - index - 1);
+        return copy;
+    }
+}
@@ -0,0 +1,37 @@
+package com.houserental.service;
+
+import com.houserental.repository.HouseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically recomputes the review aggregates stored on houses from the
+ * reviews table, repairing any drift from the incremental updates.
+ */
+@Component
+public class ReviewAggregateReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReviewAggregateReconciler.class);
+
+    @Autowired
+    private HouseRepository houseRepository;
+
+    @Value("${app.reviews.reconcile-batch-size:1000}")
+    private long batchSize;
+
+    @Scheduled(cron = "${app.reviews.reconcile-cron:0 30 3 * * *}")
+    public void reconcile() {
+        long maxId = houseRepository.findMaxId();
+        int repaired = 0;
+        for (long fromId = 1; fromId <= maxId; fromId += batchSize) {
+            repaired += houseRepository.reconcileRatingAggregates(fromId, fromId + batchSize - 1);
+        }
+        if (repaired > 0) {
+            logger.warn("Repaired review aggregates for {} houses", repaired);
+        }
+    }
+}
@@ -3,9 +3,13 @@ package com.houserental.service;
 import com.houserental.entity.House;
 import com.houserental.entity.Review;
 import com.houserental.entity.User;
+import com.houserental.repository.HouseRepository;
 import com.houserental.repository.ReviewRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.Optional;
@@ -16,12 +20,22 @@ public class ReviewService {
     @Autowired
     private ReviewRepository reviewRepository;
 
+    @Autowired
+    private HouseRepository houseRepository;
+
+    @Autowired
+    private HouseService houseService;
+
+    @Transactional
     public Review saveReview(Review review) {
         // Check if user has already reviewed this house
         if (reviewRepository.existsByHouseAndReviewer(review.getHouse(), review.getReviewer())) {
             throw new RuntimeException("You have already reviewed this property");
         }
-        return reviewRepository.save(review);
+        Review saved = reviewRepository.save(review);
+        houseRepository.adjustRatingAggregates(saved.getHouse().getId(), saved.getRating(), 1);
+        evictCachedAfterCommit(saved.getHouse().getId());
+        return saved;
     }
 
     public Optional<Review> findById(Long id) {
@@ -37,19 +51,52 @@ public class ReviewService {
     }
 
     public Double getAverageRating(House house) {
-        return reviewRepository.findAverageRatingByHouse(house);
+        return house.getAverageRating();
     }
 
     public long countByHouse(House house) {
-        return reviewRepository.countByHouse(house);
+        return house.getRatingCount();
     }
 
+    @Transactional
     public Review updateReview(Review review) {
-        return reviewRepository.save(review);
+        Optional<Integer> previousRating = review.getId() == null
+                ? Optional.empty()
+                : reviewRepository.findRatingById(review.getId());
+        Review saved = reviewRepository.save(review);
+        Long houseId = saved.getHouse().getId();
+        if (previousRating.isEmpty()) {
+            houseRepository.adjustRatingAggregates(houseId, saved.getRating(), 1);
+        } else if (!previousRating.get().equals(saved.getRating())) {
+            houseRepository.adjustRatingAggregates(houseId, previousRating.get(), -1);
+            houseRepository.adjustRatingAggregates(houseId, saved.getRating(), 1);
+        }
+        evictCachedAfterCommit(houseId);
+        return saved;
     }
 
+    @Transactional
     public void deleteReview(Long id) {
-        reviewRepository.deleteById(id);
+        Optional<Review> review = findById(id);
+        if (review.isPresent()) {
+            reviewRepository.delete(review.get());
+            houseRepository.adjustRatingAggregates(review.get().getHouse().getId(), review.get().getRating(), -1);
+            evictCachedAfterCommit(review.get().getHouse().getId());
+        }
+    }
+
+    // Evicting before the commit would let a concurrent read cache the old aggregates again
+    private void evictCachedAfterCommit(Long houseId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            houseService.evictCached(houseId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                houseService.evictCached(houseId);
+            }
+        });
     }
 
     public boolean hasUserReviewed(House house, User user) {
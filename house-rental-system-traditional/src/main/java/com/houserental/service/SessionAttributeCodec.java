@@ -0,0 +1,169 @@
+package com.houserental.service;
+
+import com.houserental.entity.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.csrf.CsrfToken;
+import org.springframework.security.web.csrf.DefaultCsrfToken;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Binary encoding of web session attributes for the shared session store.
+ * The attributes every signed-in session carries get a compact form: the
+ * security context is reduced to the user id and role, and the principal is
+ * looked up again (through a cache) when the session is read, the CSRF token
+ * to its three strings. Other attributes, such as flash messages, fall back
+ * to Java serialization, read back only for the JDK and Spring types that
+ * flash messages and login failures are made of. Attributes are written in
+ * name order, so an unchanged session always encodes to the same bytes.
+ */
+@Component
+public class SessionAttributeCodec {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private static final byte SECURITY_CONTEXT = 1;
+    private static final byte CSRF_TOKEN = 2;
+    private static final byte STRING = 3;
+    private static final byte SERIALIZED = 4;
+
+    private static final ObjectInputFilter SERIALIZED_TYPES = ObjectInputFilter.Config.createFilter(
+            "maxdepth=20;maxrefs=10000;maxbytes=1048576;"
+            + "java.lang.*;java.util.*;java.util.concurrent.*;"
+            + "org.springframework.web.servlet.FlashMap;org.springframework.util.LinkedMultiValueMap;"
+            + "org.springframework.util.MultiValueMapAdapter;"
+            + "org.springframework.security.core.*;org.springframework.security.authentication.*;!*");
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    public byte[] encode(Map<String, Object> attributes) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            Map<String, Object> sorted = new TreeMap<>(attributes);
+            out.writeShort(sorted.size());
+            for (Map.Entry<String, Object> attribute : sorted.entrySet()) {
+                out.writeUTF(attribute.getKey());
+                writeValue(out, attribute.getKey(), attribute.getValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes attributes written by {@link #encode}. A security context whose
+     * user no longer exists is dropped, which signs the session out.
+     */
+    public Map<String, Object> decode(byte[] encoded) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded))) {
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalStateException("Unsupported session format version " + version);
+            }
+            int count = in.readUnsignedShort();
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                Object value = readValue(in);
+                if (value != null) {
+                    attributes.put(name, value);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return attributes;
+    }
+
+    private static void writeValue(DataOutputStream out, String name, Object value) throws IOException {
+        if (value instanceof SecurityContext context && context.getAuthentication() != null
+                && context.getAuthentication().getPrincipal() instanceof AuthenticatedUser principal) {
+            out.writeByte(SECURITY_CONTEXT);
+            out.writeLong(principal.getId());
+            out.writeUTF(principal.getRole().name());
+        } else if (value instanceof CsrfToken token) {
+            out.writeByte(CSRF_TOKEN);
+            out.writeUTF(token.getHeaderName());
+            out.writeUTF(token.getParameterName());
+            out.writeUTF(token.getToken());
+        } else if (value instanceof String string) {
+            out.writeByte(STRING);
+            writeBytes(out, string.getBytes(StandardCharsets.UTF_8));
+        } else {
+            out.writeByte(SERIALIZED);
+            ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+            try (ObjectOutputStream objectOut = new ObjectOutputStream(serialized)) {
+                objectOut.writeObject(value);
+            } catch (NotSerializableException e) {
+                throw new IllegalArgumentException("Session attribute '" + name + "' is not serializable", e);
+            }
+            writeBytes(out, serialized.toByteArray());
+        }
+    }
+
+    private Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case SECURITY_CONTEXT: {
+                long userId = in.readLong();
+                User.Role role = User.Role.valueOf(in.readUTF());
+                AuthenticatedUser principal = userDetailsService.loadPrincipal(userId);
+                if (principal == null) {
+                    return null;
+                }
+                Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(
+                        principal, null, List.of(new SimpleGrantedAuthority("ROLE_" + role.name())));
+                return new SecurityContextImpl(authentication);
+            }
+            case CSRF_TOKEN:
+                return new DefaultCsrfToken(in.readUTF(), in.readUTF(), in.readUTF());
+            case STRING:
+                return new String(readBytes(in), StandardCharsets.UTF_8);
+            case SERIALIZED:
+                try (ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(readBytes(in)))) {
+                    objectIn.setObjectInputFilter(SERIALIZED_TYPES);
+                    return objectIn.readObject();
+                } catch (ClassNotFoundException | InvalidClassException e) {
+                    // Written by a node running a different version, or of a type not allowed; the attribute is lost
+                    return null;
+                }
+            default:
+                throw new IllegalStateException("Unknown session attribute type " + type);
+        }
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
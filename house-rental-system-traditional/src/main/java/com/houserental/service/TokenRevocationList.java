@@ -0,0 +1,195 @@
+package com.houserental.service;
+
+import com.houserental.entity.RevokedToken;
+import com.houserental.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Ids of API tokens revoked before they expire. Revocations are written to
+ * the revoked_tokens table and every node polls it for new rows, so a
+ * logout on one node is honoured by all of them within
+ * {@code app.jwt.revocation-sync-ms}. Ids are allocated at insert but
+ * committed in any order, so a poll does not start after the highest id it
+ * has seen: it starts after the highest id seen by a poll at least
+ * {@code app.jwt.revocation-commit-lag-ms} ago, and re-reads the rows of
+ * that window, so a revocation committed late is still picked up. In
+ * memory each id is a 64-bit fingerprint in an open-addressed long array,
+ * one array per hour of token expiry; a token is only looked up in its own
+ * hour, and an hour is dropped as a whole once every token in it has
+ * expired.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private static final int SYNC_BATCH_SIZE = 1000;
+    private static final long BUCKET_SECONDS = 3600;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${app.jwt.revocation-commit-lag-ms:60000}")
+    private long commitLagMs;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, FingerprintSet> byExpiryHour = new HashMap<>();
+    // Highest id seen by each recent poll, oldest first, as {epoch millis, id}
+    private final Deque<long[]> syncedIds = new ArrayDeque<>();
+    private long settledId;
+
+    @PostConstruct
+    void load() {
+        sync();
+    }
+
+    /** Revokes the token on every node; a token revoked twice is ignored. */
+    public void revoke(UUID tokenId, Instant expiresAt) {
+        try {
+            revokedTokenRepository.save(new RevokedToken(tokenId, expiresAt));
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Token {} was already revoked", tokenId);
+        }
+        add(tokenId, expiresAt);
+    }
+
+    public boolean isRevoked(UUID tokenId, Instant expiresAt) {
+        lock.readLock().lock();
+        try {
+            FingerprintSet hour = byExpiryHour.get(bucketOf(expiresAt));
+            return hour != null && hour.contains(fingerprint(tokenId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Picks up revocations made on other nodes and drops expired hours. */
+    @Scheduled(fixedDelayString = "${app.jwt.revocation-sync-ms:5000}", initialDelayString = "${app.jwt.revocation-sync-ms:5000}")
+    public synchronized void sync() {
+        Instant now = Instant.now();
+        // Rows up to an id seen a full commit lag ago can no longer be joined by earlier ids
+        while (!syncedIds.isEmpty() && syncedIds.peekFirst()[0] <= now.toEpochMilli() - commitLagMs) {
+            settledId = Math.max(settledId, syncedIds.pollFirst()[1]);
+        }
+
+        long afterId = settledId;
+        List<RevokedToken> batch;
+        do {
+            batch = revokedTokenRepository.findAfter(afterId, PageRequest.of(0, SYNC_BATCH_SIZE));
+            for (RevokedToken revoked : batch) {
+                if (revoked.getExpiresAt().isAfter(now)) {
+                    add(revoked.getTokenId(), revoked.getExpiresAt());
+                }
+                afterId = revoked.getId();
+            }
+        } while (batch.size() == SYNC_BATCH_SIZE);
+        syncedIds.addLast(new long[] {now.toEpochMilli(), afterId});
+
+        long currentHour = bucketOf(now);
+        lock.writeLock().lock();
+        try {
+            byExpiryHour.keySet().removeIf(hour -> hour < currentHour);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Scheduled(cron = "${app.jwt.revocation-purge-cron:0 30 * * * *}")
+    public void purgeExpired() {
+        int purged = revokedTokenRepository.deleteExpired(Instant.now());
+        if (purged > 0) {
+            logger.info("Purged {} expired token revocations", purged);
+        }
+    }
+
+    private void add(UUID tokenId, Instant expiresAt) {
+        lock.writeLock().lock();
+        try {
+            byExpiryHour.computeIfAbsent(bucketOf(expiresAt), hour -> new FingerprintSet())
+                    .add(fingerprint(tokenId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static long bucketOf(Instant instant) {
+        return Math.floorDiv(instant.getEpochSecond(), BUCKET_SECONDS);
+    }
+
+    // Token ids are random UUIDs, so folding them to 64 bits keeps them distinct
+    // in practice; zero marks an empty slot
+    private static long fingerprint(UUID tokenId) {
+        long fingerprint = tokenId.getMostSignificantBits() ^ tokenId.getLeastSignificantBits();
+        return fingerprint == 0 ? 1 : fingerprint;
+    }
+
+    private static final class FingerprintSet {
+
+        private long[] slots = new long[16];
+        private int size;
+
+        void add(long fingerprint) {
+            if ((size + 1) * 4L > slots.length * 3L) {
+                grow();
+            }
+            if (insert(slots, fingerprint)) {
+                size++;
+            }
+        }
+
+        boolean contains(long fingerprint) {
+            int mask = slots.length - 1;
+            for (int i = slot(fingerprint, mask); slots[i] != 0; i = (i + 1) & mask) {
+                if (slots[i] == fingerprint) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void grow() {
+            long[] larger = new long[slots.length * 2];
+            for (long fingerprint : slots) {
+                if (fingerprint != 0) {
+                    insert(larger, fingerprint);
+                }
+            }
+            slots = larger;
+        }
+
+        private static boolean insert(long[] table, long fingerprint) {
+            int mask = table.length - 1;
+            int i = slot(fingerprint, mask);
+            while (table[i] != 0) {
+                if (table[i] == fingerprint) {
+                    return false;
+                }
+                i = (i + 1) & mask;
+            }
+            table[i] = fingerprint;
+            return true;
+        }
+
+        private static int slot(long fingerprint, int mask) {
+            return (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+        }
+    }
+}
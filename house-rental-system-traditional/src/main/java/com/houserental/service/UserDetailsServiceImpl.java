@@ -1,11 +1,14 @@
 package com.houserental.service;
 
+import com.houserental.config.CacheConfig;
 import com.houserental.entity.User;
 import com.houserental.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -13,22 +16,46 @@ import org.springframework.stereotype.Service;
 import java.util.Collection;
 import java.util.Collections;
 
+/**
+ * Loads sign-in principals and, as the {@link UserDetailsPasswordService},
+ * stores the re-encoded hash when a successful login finds the old one
+ * uses an outdated algorithm or cost.
+ */
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserService userService;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
-                getAuthorities(user)
-        );
+        return new AuthenticatedUser(user, getAuthorities(user));
+    }
+
+    /**
+     * Principal of a signed-in user, without the password hash, for
+     * restoring a web session that stores only the user id and role.
+     * Returns null when the account no longer exists.
+     */
+    @Cacheable(cacheNames = CacheConfig.PRINCIPALS, unless = "#result == null")
+    public AuthenticatedUser loadPrincipal(Long id) {
+        return userRepository.findById(id).map(user -> {
+            AuthenticatedUser principal = new AuthenticatedUser(user, getAuthorities(user));
+            principal.eraseCredentials();
+            return principal;
+        }).orElse(null);
+    }
+
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userService.updatePasswordHash(user.getUsername(), newPassword);
+        return ((AuthenticatedUser) user).withPassword(newPassword);
     }
 
     private Collection<? extends GrantedAuthority> getAuthorities(User user) {
@@ -1,32 +1,68 @@
 package com.houserental.service;
 
+import com.houserental.config.CacheConfig;
 import com.houserental.entity.User;
 import com.houserental.repository.UserRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.Locale;
 import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Service
 public class UserService {
 
+    private static final Pattern DUPLICATE_COLUMN = Pattern.compile("\\((username|email)\\b");
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private AccountNameIndex accountNameIndex;
+
+    /**
+     * Inserts the user in one statement and lets the unique constraints on
+     * username and email reject duplicates, which also covers two concurrent
+     * registrations for the same name. Throws DuplicateAccountException
+     * naming the offending field.
+     */
     public User registerUser(User user) {
-        if (userRepository.existsByUsername(user.getUsername())) {
-            throw new RuntimeException("Username already exists");
-        }
-        if (userRepository.existsByEmail(user.getEmail())) {
-            throw new RuntimeException("Email already exists");
-        }
-        
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+        try {
+            User saved = userRepository.save(user);
+            accountNameIndex.add(saved.getUsername(), saved.getEmail());
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            String field = duplicateField(e);
+            if (field == null) {
+                throw e;
+            }
+            throw new DuplicateAccountException(field, "username".equals(field)
+                    ? "Username already exists" : "Email already exists", e);
+        }
+    }
+
+    /**
+     * Live availability check for the registration form. Names the Bloom
+     * filter has never seen are free without a query; the rest, mostly
+     * taken names plus the filter's false positives, are confirmed against
+     * the database.
+     */
+    public boolean isUsernameAvailable(String username) {
+        return !accountNameIndex.mightContainUsername(username) || !userRepository.existsByUsername(username);
+    }
+
+    public boolean isEmailAvailable(String email) {
+        return !accountNameIndex.mightContainEmail(email) || !userRepository.existsByEmail(email);
     }
 
     public Optional<User> findByUsername(String username) {
@@ -41,8 +77,29 @@ public class UserService {
         return userRepository.findById(id);
     }
 
+    /**
+     * Returns a lazy reference to the user for use as an association or query
+     * parameter, without loading the row.
+     */
+    public User getReference(Long id) {
+        return userRepository.getReferenceById(id);
+    }
+
+    /**
+     * Saves the user and evicts its cached principal. The new names are
+     * added to the account name filter; a previous name stays in it, and so
+     * is checked against the database, until the next rebuild.
+     */
+    @CacheEvict(cacheNames = CacheConfig.PRINCIPALS, key = "#user.id")
     public User updateUser(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        accountNameIndex.add(saved.getUsername(), saved.getEmail());
+        return saved;
+    }
+
+    /** Replaces the stored hash without loading the user, e.g. when it is re-encoded on login. */
+    public void updatePasswordHash(String username, String encodedPassword) {
+        userRepository.updatePassword(username, encodedPassword);
     }
 
     public boolean existsByUsername(String username) {
@@ -52,5 +109,24 @@ public class UserService {
     public boolean existsByEmail(String email) {
         return userRepository.existsByEmail(email);
     }
-}
 
+    // The violated column is named in the message, as "Key (email)=..." on
+    // Postgres; failing that, by the constraint name, e.g. users_email_key
+    private static String duplicateField(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        Matcher column = DUPLICATE_COLUMN.matcher(message == null ? "" : message.toLowerCase(Locale.ROOT));
+        if (column.find()) {
+            return column.group(1);
+        }
+        if (e.getCause() instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+            String constraint = violation.getConstraintName().toLowerCase(Locale.ROOT);
+            if (constraint.contains("username")) {
+                return "username";
+            }
+            if (constraint.contains("email")) {
+                return "email";
+            }
+        }
+        return null;
+    }
+}
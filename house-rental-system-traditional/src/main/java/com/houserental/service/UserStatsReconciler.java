@@ -0,0 +1,44 @@
+package com.houserental.service;
+
+import com.houserental.repository.UserRepository;
+import com.houserental.repository.UserStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically recomputes the dashboard counters from the houses and
+ * bookings tables, creating rows for users that have none and repairing any
+ * drift from the incremental updates.
+ */
+@Component
+public class UserStatsReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserStatsReconciler.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserStatsRepository userStatsRepository;
+
+    @Value("${app.stats.reconcile-batch-size:1000}")
+    private long batchSize;
+
+    @Scheduled(cron = "${app.stats.reconcile-cron:0 45 3 * * *}")
+    public void reconcile() {
+        long maxId = userRepository.findMaxId();
+        int created = 0;
+        int repaired = 0;
+        for (long fromId = 1; fromId <= maxId; fromId += batchSize) {
+            created += userStatsRepository.insertMissing(fromId, fromId + batchSize - 1);
+            repaired += userStatsRepository.reconcile(fromId, fromId + batchSize - 1);
+        }
+        if (created > 0 || repaired > 0) {
+            logger.warn("Created dashboard stats for {} users and repaired {}", created, repaired);
+        }
+    }
+}
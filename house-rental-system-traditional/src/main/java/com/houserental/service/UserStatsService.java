@@ -0,0 +1,72 @@
+package com.houserental.service;
+
+import com.houserental.entity.Booking;
+import com.houserental.entity.UserStats;
+import com.houserental.repository.UserStatsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+/**
+ * Maintains the per-user dashboard counters. The record methods apply a
+ * delta to the stored row and are meant to run in the transaction of the
+ * write they describe. A user without a row yet is skipped; the row is
+ * built from the houses and bookings tables on first read.
+ */
+@Service
+public class UserStatsService {
+
+    @Autowired
+    private UserStatsRepository userStatsRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    public UserStats getStats(Long userId) {
+        return userStatsRepository.findById(userId).orElseGet(() -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    userStatsRepository.insertMissing(userId, userId);
+                    userStatsRepository.reconcile(userId, userId);
+                });
+            } catch (DataIntegrityViolationException e) {
+                // Created concurrently by another request
+            }
+            return userStatsRepository.findById(userId).orElseGet(() -> new UserStats(userId));
+        });
+    }
+
+    public void recordHouseCountChange(Long ownerId, int delta) {
+        userStatsRepository.adjust(ownerId, delta, 0, 0, 0, 0, BigDecimal.ZERO);
+    }
+
+    /**
+     * Records a booking moving from one status to another; {@code from} is
+     * null for a new booking and {@code to} is null for a deleted one.
+     */
+    public void recordBookingTransition(Booking booking, Booking.BookingStatus from, Booking.BookingStatus to) {
+        if (from == to) {
+            return;
+        }
+        int tenantBookings = (to != null ? 1 : 0) - (from != null ? 1 : 0);
+        if (tenantBookings != 0) {
+            userStatsRepository.adjust(booking.getTenant().getId(), 0, tenantBookings, 0, 0, 0, BigDecimal.ZERO);
+        }
+        int pending = delta(Booking.BookingStatus.PENDING, from, to);
+        int approved = delta(Booking.BookingStatus.APPROVED, from, to);
+        int active = delta(Booking.BookingStatus.ACTIVE, from, to);
+        int revenueSign = (UserStats.REVENUE_STATUSES.contains(to) ? 1 : 0)
+                - (UserStats.REVENUE_STATUSES.contains(from) ? 1 : 0);
+        if (pending != 0 || approved != 0 || active != 0 || revenueSign != 0) {
+            BigDecimal revenue = booking.getTotalAmount().multiply(BigDecimal.valueOf(revenueSign));
+            userStatsRepository.adjust(booking.getHouse().getOwner().getId(), 0, 0, pending, approved, active, revenue);
+        }
+    }
+
+    private static int delta(Booking.BookingStatus status, Booking.BookingStatus from, Booking.BookingStatus to) {
+        return (to == status ? 1 : 0) - (from == status ? 1 : 0);
+    }
+}
@@ -0,0 +1,31 @@
+-- Transactional outbox: domain events are inserted in the transaction of the
+-- change they describe and delivered afterwards by OutboxDispatcher. Pending
+-- events are read in id order through the partial index; delivered events
+-- are purged after app.outbox.retention-days.
+
+CREATE TABLE outbox_events (
+    id             BIGSERIAL                   NOT NULL,
+    aggregate_type VARCHAR(20)                 NOT NULL,
+    aggregate_id   BIGINT                      NOT NULL,
+    event_type     VARCHAR(40)                 NOT NULL,
+    payload        TEXT                        NOT NULL,
+    created_at     TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    attempts       INTEGER                     NOT NULL DEFAULT 0,
+    processed_at   TIMESTAMP(6) WITH TIME ZONE,
+    failed_at      TIMESTAMP(6) WITH TIME ZONE,
+    last_error     VARCHAR(1000),
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_outbox_events_pending ON outbox_events (id)
+    WHERE processed_at IS NULL AND failed_at IS NULL;
+CREATE INDEX idx_outbox_events_processed_at ON outbox_events (processed_at);
+
+-- One row per dispatcher; the node holding an unexpired lease is the only one
+-- delivering events, which keeps delivery ordered per aggregate.
+CREATE TABLE outbox_leases (
+    name       VARCHAR(50)                 NOT NULL,
+    owner      VARCHAR(100)                NOT NULL,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (name)
+);
@@ -0,0 +1,32 @@
+-- Per-house review aggregates, kept in step with reviews on every review
+-- write and reconciled nightly. Databases whose schema Hibernate generated
+-- may already have the columns; either way they are backfilled from the
+-- reviews written so far.
+
+ALTER TABLE houses ADD COLUMN IF NOT EXISTS rating_sum       BIGINT  DEFAULT 0 NOT NULL;
+ALTER TABLE houses ADD COLUMN IF NOT EXISTS rating_count     INTEGER DEFAULT 0 NOT NULL;
+ALTER TABLE houses ADD COLUMN IF NOT EXISTS one_star_count   INTEGER DEFAULT 0 NOT NULL;
+ALTER TABLE houses ADD COLUMN IF NOT EXISTS two_star_count   INTEGER DEFAULT 0 NOT NULL;
+ALTER TABLE houses ADD COLUMN IF NOT EXISTS three_star_count INTEGER DEFAULT 0 NOT NULL;
+ALTER TABLE houses ADD COLUMN IF NOT EXISTS four_star_count  INTEGER DEFAULT 0 NOT NULL;
+ALTER TABLE houses ADD COLUMN IF NOT EXISTS five_star_count  INTEGER DEFAULT 0 NOT NULL;
+
+UPDATE houses h
+SET rating_sum       = r.rating_sum,
+    rating_count     = r.rating_count,
+    one_star_count   = r.one_star_count,
+    two_star_count   = r.two_star_count,
+    three_star_count = r.three_star_count,
+    four_star_count  = r.four_star_count,
+    five_star_count  = r.five_star_count
+FROM (SELECT house_id,
+             SUM(rating)                            AS rating_sum,
+             COUNT(*)                               AS rating_count,
+             COUNT(*) FILTER (WHERE rating = 1)     AS one_star_count,
+             COUNT(*) FILTER (WHERE rating = 2)     AS two_star_count,
+             COUNT(*) FILTER (WHERE rating = 3)     AS three_star_count,
+             COUNT(*) FILTER (WHERE rating = 4)     AS four_star_count,
+             COUNT(*) FILTER (WHERE rating = 5)     AS five_star_count
+      FROM reviews
+      GROUP BY house_id) r
+WHERE h.id = r.house_id;
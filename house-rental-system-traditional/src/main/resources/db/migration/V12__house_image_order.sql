@@ -0,0 +1,14 @@
+-- Images keep the order they were added in, so the first one can serve as
+-- the cover shown on listing cards. Existing images are numbered in the
+-- order the table returns them, which is the order pages showed until now.
+
+ALTER TABLE house_images ADD COLUMN IF NOT EXISTS image_order INTEGER;
+
+UPDATE house_images hi
+SET image_order = n.image_order
+FROM (SELECT ctid, ROW_NUMBER() OVER (PARTITION BY house_id ORDER BY ctid) - 1 AS image_order
+      FROM house_images) n
+WHERE hi.ctid = n.ctid;
+
+ALTER TABLE house_images ALTER COLUMN image_order SET NOT NULL;
+ALTER TABLE house_images ADD PRIMARY KEY (house_id, image_order);
@@ -0,0 +1,94 @@
+-- Schema as previously generated by Hibernate. Existing databases are
+-- baselined at this version and skip it.
+
+CREATE TABLE users (
+    id           BIGSERIAL    NOT NULL,
+    username     VARCHAR(50)  NOT NULL UNIQUE,
+    email        VARCHAR(255) NOT NULL UNIQUE,
+    password     VARCHAR(255) NOT NULL,
+    first_name   VARCHAR(50)  NOT NULL,
+    last_name    VARCHAR(50)  NOT NULL,
+    phone_number VARCHAR(20),
+    role         VARCHAR(255) NOT NULL CHECK (role IN ('TENANT', 'LANDLORD')),
+    enabled      BOOLEAN      NOT NULL,
+    created_at   TIMESTAMP(6) NOT NULL,
+    updated_at   TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE houses (
+    id                  BIGSERIAL      NOT NULL,
+    title               VARCHAR(200)   NOT NULL,
+    description         TEXT           NOT NULL,
+    address             VARCHAR(200)   NOT NULL,
+    city                VARCHAR(100)   NOT NULL,
+    state               VARCHAR(100)   NOT NULL,
+    zip_code            VARCHAR(20)    NOT NULL,
+    country             VARCHAR(100)   NOT NULL,
+    price_per_month     NUMERIC(10, 2) NOT NULL,
+    security_deposit    NUMERIC(10, 2) NOT NULL,
+    bedrooms            INTEGER CHECK ((bedrooms <= 20) AND (bedrooms >= 0)),
+    bathrooms           INTEGER CHECK ((bathrooms <= 20) AND (bathrooms >= 0)),
+    square_feet         INTEGER CHECK (square_feet >= 1),
+    property_type       VARCHAR(255)   NOT NULL
+        CHECK (property_type IN ('APARTMENT', 'HOUSE', 'CONDO', 'TOWNHOUSE', 'STUDIO', 'ROOM')),
+    availability_status VARCHAR(255)   NOT NULL
+        CHECK (availability_status IN ('AVAILABLE', 'RENTED', 'MAINTENANCE', 'UNAVAILABLE')),
+    pets_allowed        BOOLEAN,
+    smoking_allowed     BOOLEAN,
+    furnished           BOOLEAN,
+    parking_available   BOOLEAN,
+    laundry_available   BOOLEAN,
+    air_conditioning    BOOLEAN,
+    heating             BOOLEAN,
+    internet            BOOLEAN,
+    owner_id            BIGINT         NOT NULL,
+    created_at          TIMESTAMP(6)   NOT NULL,
+    updated_at          TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE house_images (
+    house_id  BIGINT NOT NULL,
+    image_url VARCHAR(255)
+);
+
+CREATE TABLE house_amenities (
+    house_id BIGINT NOT NULL,
+    amenity  VARCHAR(255)
+);
+
+CREATE TABLE bookings (
+    id               BIGSERIAL      NOT NULL,
+    start_date       DATE           NOT NULL,
+    end_date         DATE           NOT NULL,
+    total_amount     NUMERIC(10, 2) NOT NULL,
+    status           VARCHAR(255)   NOT NULL
+        CHECK (status IN ('PENDING', 'APPROVED', 'REJECTED', 'ACTIVE', 'COMPLETED', 'CANCELLED')),
+    notes            TEXT,
+    rejection_reason VARCHAR(500),
+    house_id         BIGINT         NOT NULL,
+    tenant_id        BIGINT         NOT NULL,
+    created_at       TIMESTAMP(6)   NOT NULL,
+    updated_at       TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE reviews (
+    id          BIGSERIAL    NOT NULL,
+    rating      INTEGER      NOT NULL CHECK ((rating >= 1) AND (rating <= 5)),
+    comment     TEXT         NOT NULL,
+    house_id    BIGINT       NOT NULL,
+    reviewer_id BIGINT       NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL,
+    updated_at  TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE houses ADD CONSTRAINT FKn9yr5cdkajfhcbtrwnvq8seyl FOREIGN KEY (owner_id) REFERENCES users;
+ALTER TABLE house_images ADD CONSTRAINT FK1ksqd0kdf4madevx9j032jws7 FOREIGN KEY (house_id) REFERENCES houses;
+ALTER TABLE house_amenities ADD CONSTRAINT FK5ytf2en4xxemxlgii08c1nci0 FOREIGN KEY (house_id) REFERENCES houses;
+ALTER TABLE bookings ADD CONSTRAINT FK7cqglmbjqafa47mmtaoklw3qe FOREIGN KEY (house_id) REFERENCES houses;
+ALTER TABLE bookings ADD CONSTRAINT FKeg03kra5t9odfw0e171p83jf8 FOREIGN KEY (tenant_id) REFERENCES users;
+ALTER TABLE reviews ADD CONSTRAINT FKgto6vm4vaj3etd9ipjl81we2i FOREIGN KEY (house_id) REFERENCES houses;
+ALTER TABLE reviews ADD CONSTRAINT FKd1isgfajhtdl8mgg29up6mofi FOREIGN KEY (reviewer_id) REFERENCES users;
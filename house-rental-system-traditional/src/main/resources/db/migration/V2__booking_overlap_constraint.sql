@@ -0,0 +1,13 @@
+-- Stops two APPROVED or ACTIVE bookings for the same house from overlapping.
+-- Databases that already received the constraint at runtime keep it as is.
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'bookings_no_overlap') THEN
+        ALTER TABLE bookings ADD CONSTRAINT bookings_no_overlap EXCLUDE USING gist
+            (house_id WITH =, daterange(start_date, end_date, '[]') WITH &&)
+            WHERE (status IN ('APPROVED', 'ACTIVE'));
+    END IF;
+END $$;
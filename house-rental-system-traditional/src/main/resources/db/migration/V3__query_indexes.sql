@@ -0,0 +1,21 @@
+-- Indexes for the listing, owner, booking and review lookups. Names must stay
+-- in sync with the entity mappings and SchemaIndexVerifier.
+
+CREATE INDEX IF NOT EXISTS idx_houses_status_created ON houses (availability_status, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_houses_owner ON houses (owner_id);
+CREATE INDEX IF NOT EXISTS idx_house_images_house ON house_images (house_id);
+CREATE INDEX IF NOT EXISTS idx_house_amenities_house ON house_amenities (house_id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_house_status_dates ON bookings (house_id, status, start_date, end_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_tenant_created ON bookings (tenant_id, created_at);
+
+CREATE INDEX IF NOT EXISTS idx_reviews_house_created ON reviews (house_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_reviews_reviewer ON reviews (reviewer_id);
+
+-- Trigram indexes serving the LOWER(column) LIKE '%term%' fallback search
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_houses_title_trgm ON houses USING gin (lower(title) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_houses_description_trgm ON houses USING gin (lower(description) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_houses_city_trgm ON houses USING gin (lower(city) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_houses_state_trgm ON houses USING gin (lower(state) gin_trgm_ops);
@@ -0,0 +1,4 @@
+-- Hibernate allocates house ids in blocks of 50 so inserts can be batched.
+-- The increment must match the allocationSize on House.id.
+
+ALTER SEQUENCE houses_id_seq INCREMENT BY 50;
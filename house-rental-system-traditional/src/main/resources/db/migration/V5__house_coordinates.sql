@@ -0,0 +1,9 @@
+-- Optional coordinates for radius and bounding-box search
+
+ALTER TABLE houses ADD COLUMN latitude DOUBLE PRECISION;
+ALTER TABLE houses ADD COLUMN longitude DOUBLE PRECISION;
+ALTER TABLE houses ADD CONSTRAINT houses_latitude_range CHECK (latitude BETWEEN -90 AND 90);
+ALTER TABLE houses ADD CONSTRAINT houses_longitude_range CHECK (longitude BETWEEN -180 AND 180);
+
+-- Serves the bounding-box query used while the in-memory index is warming up
+CREATE INDEX IF NOT EXISTS idx_houses_location ON houses (latitude, longitude);
@@ -0,0 +1,13 @@
+-- Boolean house features packed into one integer, bit positions as in House.Feature
+
+ALTER TABLE houses ADD COLUMN feature_mask INTEGER NOT NULL DEFAULT 0;
+
+UPDATE houses SET feature_mask =
+      (CASE WHEN pets_allowed THEN 1 ELSE 0 END)
+    | (CASE WHEN smoking_allowed THEN 2 ELSE 0 END)
+    | (CASE WHEN furnished THEN 4 ELSE 0 END)
+    | (CASE WHEN parking_available THEN 8 ELSE 0 END)
+    | (CASE WHEN laundry_available THEN 16 ELSE 0 END)
+    | (CASE WHEN air_conditioning THEN 32 ELSE 0 END)
+    | (CASE WHEN heating THEN 64 ELSE 0 END)
+    | (CASE WHEN internet THEN 128 ELSE 0 END);
@@ -0,0 +1,32 @@
+-- Per-user dashboard counters, maintained incrementally on house and booking
+-- writes and reconciled periodically. Revenue sums approved, active and
+-- completed bookings on the user's houses.
+
+CREATE TABLE user_stats (
+    user_id                BIGINT         NOT NULL,
+    house_count            BIGINT         DEFAULT 0 NOT NULL,
+    tenant_booking_count   BIGINT         DEFAULT 0 NOT NULL,
+    pending_booking_count  BIGINT         DEFAULT 0 NOT NULL,
+    approved_booking_count BIGINT         DEFAULT 0 NOT NULL,
+    active_booking_count   BIGINT         DEFAULT 0 NOT NULL,
+    revenue                NUMERIC(14, 2) DEFAULT 0 NOT NULL,
+    updated_at             TIMESTAMP(6),
+    PRIMARY KEY (user_id),
+    CONSTRAINT fk_user_stats_user FOREIGN KEY (user_id) REFERENCES users ON DELETE CASCADE
+);
+
+INSERT INTO user_stats (user_id, house_count, tenant_booking_count, pending_booking_count,
+                        approved_booking_count, active_booking_count, revenue, updated_at)
+SELECT u.id,
+       (SELECT COUNT(*) FROM houses h WHERE h.owner_id = u.id),
+       (SELECT COUNT(*) FROM bookings b WHERE b.tenant_id = u.id),
+       (SELECT COUNT(*) FROM bookings b JOIN houses h ON h.id = b.house_id
+         WHERE h.owner_id = u.id AND b.status = 'PENDING'),
+       (SELECT COUNT(*) FROM bookings b JOIN houses h ON h.id = b.house_id
+         WHERE h.owner_id = u.id AND b.status = 'APPROVED'),
+       (SELECT COUNT(*) FROM bookings b JOIN houses h ON h.id = b.house_id
+         WHERE h.owner_id = u.id AND b.status = 'ACTIVE'),
+       COALESCE((SELECT SUM(b.total_amount) FROM bookings b JOIN houses h ON h.id = b.house_id
+         WHERE h.owner_id = u.id AND b.status IN ('APPROVED', 'ACTIVE', 'COMPLETED')), 0),
+       CURRENT_TIMESTAMP
+FROM users u;
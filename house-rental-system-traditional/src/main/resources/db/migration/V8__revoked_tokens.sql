@@ -0,0 +1,12 @@
+-- JWT ids revoked before their expiry (API logout). Every node polls this
+-- table by id for new rows, and rows are purged once the token has expired.
+
+CREATE TABLE revoked_tokens (
+    id         BIGSERIAL                   NOT NULL,
+    token_id   UUID                        NOT NULL,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_revoked_tokens_token_id UNIQUE (token_id)
+);
+
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
@@ -0,0 +1,16 @@
+-- Web sessions shared by all nodes (app.session.store=jdbc). Attributes are
+-- stored in the compact encoding of SessionAttributeCodec; times are epoch
+-- milliseconds, and expiry_time is kept up to date so expired sessions can
+-- be purged by index.
+
+CREATE TABLE http_sessions (
+    id                   VARCHAR(36) NOT NULL,
+    creation_time        BIGINT      NOT NULL,
+    last_accessed_time   BIGINT      NOT NULL,
+    max_inactive_seconds INTEGER     NOT NULL,
+    expiry_time          BIGINT      NOT NULL,
+    attributes           BYTEA       NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_http_sessions_expiry_time ON http_sessions (expiry_time);
@@ -0,0 +1,140 @@
+package com.houserental.controller;
+
+import com.houserental.entity.House;
+import com.houserental.entity.User;
+import com.houserental.service.HouseService;
+import com.houserental.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.Cookie;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Renders the listing pages with few and with many houses and checks the
+ * number of statements Hibernate prepares does not grow with the page: the
+ * owners, images and amenities of the cards must load in batches rather
+ * than once per card.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ListingQueryCountTest {
+
+    private static final int FEW = 3;
+    private static final int MANY = 12;
+
+    private static final AtomicInteger OWNERS = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private HouseService houseService;
+
+    @Autowired
+    private UserService userService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void myHousesPageQueriesDoNotGrowWithHouseCount() throws Exception {
+        User few = landlordWith(FEW, "Fewton");
+        User many = landlordWith(MANY, "Manyton");
+
+        long fewStatements = statementsFor(get("/my-houses").cookie(signIn(few)));
+        long manyStatements = statementsFor(get("/my-houses").cookie(signIn(many)));
+
+        assertThat(manyStatements).isEqualTo(fewStatements);
+    }
+
+    @Test
+    void searchPageQueriesDoNotGrowWithResultCount() throws Exception {
+        int n = OWNERS.get() + 1;
+        landlordWith(FEW, "Smallville" + n);
+        landlordWith(MANY, "Bigtown" + n);
+
+        long fewStatements = statementsFor(get("/search").param("city", "Smallville" + n));
+        long manyStatements = statementsFor(get("/search").param("city", "Bigtown" + n));
+
+        assertThat(manyStatements).isEqualTo(fewStatements);
+    }
+
+    @Test
+    void homePageQueriesDoNotGrowWithPageSize() throws Exception {
+        landlordWith(FEW, "Hometown");
+        long fewStatements = statementsFor(get("/"));
+
+        landlordWith(MANY, "Hometown");
+        long manyStatements = statementsFor(get("/"));
+
+        assertThat(manyStatements).isEqualTo(fewStatements);
+    }
+
+    private User landlordWith(int houses, String city) {
+        int n = OWNERS.incrementAndGet();
+        User owner = userService.registerUser(new User("owner" + n, "owner" + n + "@example.com",
+                "secret1", "Own", "Er", User.Role.LANDLORD));
+        for (int i = 0; i < houses; i++) {
+            House house = new House("Listed flat " + i, "A flat with photos and amenities", "1 Main Street",
+                    city, "Bagmati", "44600", BigDecimal.valueOf(1000 + i), BigDecimal.TEN,
+                    House.PropertyType.APARTMENT, owner);
+            house.setImages(new ArrayList<>(List.of("front-" + n + "-" + i + ".jpg", "back-" + n + "-" + i + ".jpg")));
+            house.setAmenities(new ArrayList<>(List.of("wifi", "parking")));
+            houseService.saveHouse(house);
+        }
+        return owner;
+    }
+
+    // Signs in through the login form, as the layout needs a session before the page is written
+    private Cookie signIn(User user) throws Exception {
+        return mockMvc.perform(formLogin("/perform_login").user(user.getUsername()).password("secret1"))
+                .andExpect(redirectedUrl("/dashboard"))
+                .andReturn().getResponse().getCookie("SESSION");
+    }
+
+    // Cold caches, so each page pays for every query it would issue
+    private long statementsFor(MockHttpServletRequestBuilder request) throws Exception {
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+        statistics.clear();
+        mockMvc.perform(request).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,70 @@
+package com.houserental.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class FileSessionStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void updateAfterDeleteDoesNotRecreateSession() {
+        FileSessionStore store = new FileSessionStore(directory.resolve("sessions").toString());
+        store.insert(entry("a1", "signed-in"));
+
+        store.delete("a1");
+        store.update("a1", entry("a1", "still-signed-in"));
+
+        assertThat(store.load("a1")).isNull();
+    }
+
+    @Test
+    void updateMovesSessionToNewId() {
+        FileSessionStore store = new FileSessionStore(directory.resolve("sessions").toString());
+        store.insert(entry("a1", "anonymous"));
+
+        store.update("a1", entry("b2", "signed-in"));
+
+        assertThat(store.load("a1")).isNull();
+        assertThat(new String(store.load("b2").attributes(), StandardCharsets.UTF_8)).isEqualTo("signed-in");
+    }
+
+    @Test
+    void createsDirectoryForOwnerOnly() throws Exception {
+        assumeTrue(Files.getFileStore(directory).supportsFileAttributeView("posix"));
+        Path sessions = directory.resolve("app").resolve("sessions");
+
+        new FileSessionStore(sessions.toString());
+
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(sessions))).isEqualTo("rwx------");
+    }
+
+    @Test
+    void refusesDirectoryWritableByOthers() throws Exception {
+        assumeTrue(Files.getFileStore(directory).supportsFileAttributeView("posix"));
+        Path shared = Files.createDirectory(directory.resolve("shared"));
+        Files.setPosixFilePermissions(shared, PosixFilePermissions.fromString("rwxrwxrwx"));
+
+        assertThatThrownBy(() -> new FileSessionStore(shared.toString()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static SessionStore.Entry entry(String id, String attributes) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        return new SessionStore.Entry(id, now, now, Duration.ofMinutes(30),
+                                      attributes.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,152 @@
+package com.houserental.service;
+
+import com.houserental.entity.Booking;
+import com.houserental.entity.House;
+import com.houserental.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Races overlapping requests, approvals and deletions for the same houses
+ * and checks the lock stripes and calendar never admit two blocking
+ * bookings sharing a day. H2 has no exclusion constraint, so nothing
+ * behind the service catches an overlap it lets through.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 150;
+    private static final int WINDOW_DAYS = 120;
+
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private HouseService houseService;
+
+    @Autowired
+    private UserService userService;
+
+    private User tenant;
+    private List<House> houses;
+
+    @BeforeEach
+    void setUp() {
+        int n = USERS.incrementAndGet();
+        User landlord = userService.registerUser(new User("landlord" + n, "landlord" + n + "@example.com",
+                "secret1", "Land", "Lord", User.Role.LANDLORD));
+        tenant = userService.registerUser(new User("tenant" + n, "tenant" + n + "@example.com",
+                "secret1", "Ten", "Ant", User.Role.TENANT));
+        houses = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            houses.add(houseService.saveHouse(new House("Contended flat " + i, "A flat everyone wants at once",
+                    "1 Main Street", "Kathmandu", "Bagmati", "44600", BigDecimal.valueOf(1000),
+                    BigDecimal.TEN, House.PropertyType.APARTMENT, landlord)));
+        }
+    }
+
+    @Test
+    void concurrentRequestsApprovalsAndDeletesNeverOverlap() throws Exception {
+        AtomicInteger approved = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(pool.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        House house = houses.get(random.nextInt(houses.size()));
+                        LocalDate start = LocalDate.now().plusDays(1 + random.nextInt(WINDOW_DAYS));
+                        LocalDate end = start.plusDays(1 + random.nextInt(7));
+                        try {
+                            Booking saved = bookingService.saveBooking(
+                                    new Booking(start, end, BigDecimal.TEN, house, tenant, null));
+                            bookingService.updateBookingStatus(saved.getId(), Booking.BookingStatus.APPROVED, null);
+                            approved.incrementAndGet();
+                            if (random.nextInt(4) == 0) {
+                                bookingService.deleteBooking(saved.getId());
+                            }
+                        } catch (RuntimeException e) {
+                            // Rejected as unavailable; the race is the point
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(approved.get()).isPositive();
+        for (House house : houses) {
+            List<Booking> blocking = bookingService.findByHouse(house).stream()
+                    .filter(b -> BookingAvailabilityIndex.isBlocking(b.getStatus()))
+                    .toList();
+            for (int i = 0; i < blocking.size(); i++) {
+                for (int j = i + 1; j < blocking.size(); j++) {
+                    Booking a = blocking.get(i);
+                    Booking b = blocking.get(j);
+                    // Ranges include both ends, as in findConflictingBookings and the exclusion constraint
+                    assertThat(!a.getStartDate().isAfter(b.getEndDate()) && !b.getStartDate().isAfter(a.getEndDate()))
+                            .as("bookings %d and %d overlap", a.getId(), b.getId())
+                            .isFalse();
+                }
+            }
+        }
+    }
+
+    @Test
+    void sameDayTurnoverIsRejected() {
+        House house = houses.get(1);
+        LocalDate start = LocalDate.now().plusDays(30);
+        LocalDate end = start.plusDays(3);
+        Booking first = bookingService.saveBooking(new Booking(start, end, BigDecimal.TEN, house, tenant, null));
+        bookingService.updateBookingStatus(first.getId(), Booking.BookingStatus.APPROVED, null);
+
+        assertThatThrownBy(() -> bookingService.saveBooking(
+                new Booking(end, end.plusDays(2), BigDecimal.TEN, house, tenant, null)))
+                .isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    void deletedBookingFreesItsDates() {
+        House house = houses.get(0);
+        LocalDate start = LocalDate.now().plusDays(10);
+        LocalDate end = start.plusDays(5);
+        Booking first = bookingService.saveBooking(new Booking(start, end, BigDecimal.TEN, house, tenant, null));
+        bookingService.updateBookingStatus(first.getId(), Booking.BookingStatus.APPROVED, null);
+
+        assertThatThrownBy(() -> bookingService.saveBooking(
+                new Booking(start, end, BigDecimal.TEN, house, tenant, null)))
+                .isInstanceOf(RuntimeException.class);
+
+        bookingService.deleteBooking(first.getId());
+        Booking second = bookingService.saveBooking(new Booking(start, end, BigDecimal.TEN, house, tenant, null));
+        assertThat(bookingService.updateBookingStatus(second.getId(), Booking.BookingStatus.APPROVED, null)
+                .getStatus()).isEqualTo(Booking.BookingStatus.APPROVED);
+    }
+}
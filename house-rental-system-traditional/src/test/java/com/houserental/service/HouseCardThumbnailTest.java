@@ -0,0 +1,49 @@
+package com.houserental.service;
+
+import com.houserental.dto.HouseCard;
+import com.houserental.entity.House;
+import com.houserental.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cards show a house's first image, in upload order, whatever the image
+ * names sort as.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class HouseCardThumbnailTest {
+
+    @Autowired
+    private HouseService houseService;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void cardThumbnailIsFirstUploadedImage() {
+        User owner = userService.registerUser(new User("coverowner", "coverowner@example.com",
+                "secret1", "Cover", "Owner", User.Role.LANDLORD));
+        House house = new House("Covered flat", "A flat whose cover sorts last", "1 Main Street",
+                "Covertown", "Bagmati", "44600", BigDecimal.valueOf(1000), BigDecimal.TEN,
+                House.PropertyType.APARTMENT, owner);
+        house.setImages(new ArrayList<>(List.of("zebra-cover.jpg", "apple-kitchen.jpg")));
+        Long id = houseService.saveHouse(house).getId();
+        houseService.addImages(id, List.of("aardvark-garden.jpg"));
+
+        List<HouseCard> cards = houseService.searchCardsBefore(null, "Covertown", null, null, null,
+                null, null, null, null, null, null, 10).getContent();
+
+        assertThat(cards).singleElement()
+                .extracting(HouseCard::getThumbnailUrl)
+                .isEqualTo("zebra-cover.jpg");
+    }
+}
@@ -0,0 +1,67 @@
+package com.houserental.service;
+
+import com.houserental.dto.HouseDetail;
+import com.houserental.entity.House;
+import com.houserental.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class HouseDetailCacheTest {
+
+    @Autowired
+    private HouseService houseService;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void cachedDetailIsSharedAndReadOnly() {
+        House house = houseService.saveHouse(house(landlord("detailowner")));
+
+        HouseDetail first = houseService.findDetail(house.getId()).orElseThrow();
+        HouseDetail second = houseService.findDetail(house.getId()).orElseThrow();
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getOwnerName()).isEqualTo("Detail Owner");
+        assertThatThrownBy(() -> first.getImages().add("other.jpg"))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> first.getFeatures().clear())
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void isOwnerComparesStoredOwner() {
+        User owner = landlord("realowner");
+        User other = landlord("otherowner");
+        House house = houseService.saveHouse(house(owner));
+
+        assertThat(houseService.isOwner(house.getId(), owner)).isTrue();
+        assertThat(houseService.isOwner(house.getId(), other)).isFalse();
+        assertThat(houseService.isOwner(-1L, owner)).isFalse();
+    }
+
+    private User landlord(String username) {
+        return userService.registerUser(new User(username, username + "@example.com",
+                "secret1", "Detail", "Owner", User.Role.LANDLORD));
+    }
+
+    private static House house(User owner) {
+        House house = new House("Detailed flat", "A flat with a cached detail view", "1 Main Street",
+                "Detailtown", "Bagmati", "44600", BigDecimal.valueOf(1000), BigDecimal.TEN,
+                House.PropertyType.APARTMENT, owner);
+        house.setImages(new ArrayList<>(List.of("cover.jpg")));
+        house.setInternet(true);
+        return house;
+    }
+}
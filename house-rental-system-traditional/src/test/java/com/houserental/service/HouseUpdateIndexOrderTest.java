@@ -0,0 +1,54 @@
+package com.houserental.service;
+
+import com.houserental.dto.HouseCard;
+import com.houserental.entity.House;
+import com.houserental.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * An edit binds a House from the form, without its creation time; the
+ * search index must keep ordering the edited house by the stored one.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class HouseUpdateIndexOrderTest {
+
+    @Autowired
+    private HouseService houseService;
+
+    @Autowired
+    private HouseSearchIndex houseSearchIndex;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void editedHouseKeepsItsPlaceInIndexResults() {
+        User owner = userService.registerUser(new User("editowner", "editowner@example.com",
+                "secret1", "Edit", "Owner", User.Role.LANDLORD));
+        House older = houseService.saveHouse(house("Older flat", owner));
+        House newer = houseService.saveHouse(house("Newer flat", owner));
+
+        House edited = house("Newer flat, repainted", owner);
+        edited.setId(newer.getId());
+        houseService.updateHouse(edited);
+
+        assertThat(houseSearchIndex.isReady()).isTrue();
+        assertThat(houseService.searchCardsBefore(null, "Edittown", null, null, null,
+                        null, null, null, null, null, null, 10).getContent())
+                .extracting(HouseCard::getId)
+                .containsExactly(newer.getId(), older.getId());
+    }
+
+    private static House house(String title, User owner) {
+        return new House(title, "A flat that gets edited", "1 Main Street", "Edittown", "Bagmati", "44600",
+                BigDecimal.valueOf(1000), BigDecimal.TEN, House.PropertyType.APARTMENT, owner);
+    }
+}
@@ -0,0 +1,50 @@
+package com.houserental.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.web.servlet.FlashMap;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionAttributeCodecTest {
+
+    private final SessionAttributeCodec codec = new SessionAttributeCodec();
+
+    @Test
+    void flashMessagesAndLoginFailuresRoundTrip() {
+        FlashMap flash = new FlashMap();
+        flash.put("successMessage", "House added successfully!");
+        flash.setTargetRequestPath("/my-houses");
+        flash.addTargetRequestParam("page", "2");
+        AuthenticationServiceException busy = new AuthenticationServiceException("Server is busy",
+                new RejectedExecutionException("queue full"));
+
+        Map<String, Object> decoded = codec.decode(codec.encode(Map.of(
+                "flash", List.of(flash),
+                "failure", new BadCredentialsException("Bad credentials"),
+                "busy", busy)));
+
+        assertThat(decoded.get("flash")).isEqualTo(List.of(flash));
+        assertThat(((List<?>) decoded.get("flash")).get(0)).isInstanceOfSatisfying(FlashMap.class,
+                map -> assertThat(map.getTargetRequestParams().getFirst("page")).isEqualTo("2"));
+        assertThat(decoded.get("failure")).isInstanceOf(BadCredentialsException.class);
+        assertThat(((Throwable) decoded.get("busy")).getCause()).isInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    void typesOutsideTheAllowlistAreDropped() {
+        Map<String, Object> decoded = codec.decode(codec.encode(Map.of(
+                "gadget", new Gadget("payload"),
+                "note", "kept")));
+
+        assertThat(decoded).containsOnlyKeys("note");
+    }
+
+    record Gadget(String command) implements Serializable {}
+}